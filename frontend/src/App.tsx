@@ -1,4 +1,4 @@
-import React, { useEffect, useState, useCallback } from 'react';
+import React, { useEffect, useMemo, useState } from 'react';
 import {
     AppBar,
     Box,
@@ -20,50 +20,57 @@ const theme = createTheme({
     },
 });
 
+// The same selections and orderings as the /analyze/uptrend, /analyze/volume-spike and /analyze/gainers endpoints,
+// applied to the streamed analysis so that switching tabs needs no request
+const selectStocks = (tab: number, analyses: StockAnalysis[]): StockAnalysis[] => {
+    switch (tab) {
+        case 1: // Uptrending
+            return analyses
+                .filter((stock) => stock.isUptrending && stock.priceChange30d != null)
+                .sort((a, b) => b.priceChange30d - a.priceChange30d);
+        case 2: // Volume Spikes
+            return analyses
+                .filter((stock) => stock.hasUnusualVolume && stock.volume != null && stock.averageVolume > 0)
+                .sort((a, b) => b.volume / b.averageVolume - a.volume / a.averageVolume);
+        case 3: // Top Gainers
+            return analyses
+                .filter((stock) => stock.priceChange30d != null)
+                .sort((a, b) => b.priceChange30d - a.priceChange30d);
+        default: // All Stocks
+            return analyses;
+    }
+};
+
 function App() {
     const [tab, setTab] = useState(0);
-    const [stocks, setStocks] = useState<StockAnalysis[]>([]);
-    const [loading, setLoading] = useState(true);
+    // Current analysis by ticker, kept in sync by the stream; null until the first snapshot arrives
+    const [analyses, setAnalyses] = useState<Map<string, StockAnalysis> | null>(null);
     const [error, setError] = useState<string | null>(null);
 
-    const fetchStocks = useCallback(async () => {
-        try {
-            setLoading(true);
-            setError(null);
-            let response;
-
-            switch (tab) {
-                case 0: // All Stocks
-                    response = await stockApi.getAllStocks();
-                    break;
-                case 1: // Uptrending
-                    response = await stockApi.getUptrendingStocks();
-                    break;
-                case 2: // Volume Spikes
-                    response = await stockApi.getVolumeSpikes();
-                    break;
-                case 3: // Top Gainers
-                    response = await stockApi.getTopGainers();
-                    break;
-                default:
-                    response = await stockApi.getAllStocks();
-            }
-
-            if (response) {
-                setStocks(response.data);
-            }
-        } catch (err) {
-            const error = err as Error;
-            setError(error.message || 'Failed to fetch stock data. Please try again later.');
-            console.error('Error fetching stocks:', error);
-        } finally {
-            setLoading(false);
-        }
-    }, [tab]);
-
+    // One stream for the lifetime of the page: every snapshot (including the one sent after a reconnect, when the
+    // server dropped this client and it may have missed deltas) replaces the state, every delta is applied to it
     useEffect(() => {
-        fetchStocks();
-    }, [fetchStocks]);
+        return stockApi.subscribeToAnalysis(
+            (delta) => {
+                setError(null);
+                setAnalyses((previous) => {
+                    const next = delta.snapshot || previous == null
+                        ? new Map<string, StockAnalysis>()
+                        : new Map(previous);
+                    delta.removed.forEach((ticker) => next.delete(ticker));
+                    delta.changed.forEach((stock) => next.set(stock.ticker, stock));
+                    return next;
+                });
+            },
+            () => setError('No response from server. Please check if the backend server is running.')
+        );
+    }, []);
+
+    const stocks = useMemo(
+        () => (analyses ? selectStocks(tab, Array.from(analyses.values())) : []),
+        [tab, analyses]
+    );
+    const loading = analyses == null;
 
     const getTitle = () => {
         switch (tab) {
@@ -107,12 +114,14 @@ function App() {
                 </AppBar>
 
                 <Container maxWidth="xl" sx={{ mt: 4 }}>
-                    {error ? (
+                    {error && (
                         <Typography color="error" sx={{ mt: 2 }}>
                             {error}
                         </Typography>
-                    ) : loading ? (
-                        <Typography sx={{ mt: 2 }}>Loading...</Typography>
+                    )}
+                    {/* While reconnecting the last known analysis stays visible until the new snapshot replaces it */}
+                    {loading ? (
+                        !error && <Typography sx={{ mt: 2 }}>Loading...</Typography>
                     ) : (
                         <StockTable stocks={stocks} title={getTitle()} />
                     )}
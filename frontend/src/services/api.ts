@@ -1,5 +1,5 @@
 import axios, { AxiosError } from 'axios';
-import { StockAnalysis } from '../types/stock';
+import { AnalysisDelta, StockAnalysis } from '../types/stock';
 
 const API_BASE_URL = 'http://localhost:8080/api/stocks';
 
@@ -62,5 +62,19 @@ export const stockApi = {
         } catch (error) {
             handleError(error as AxiosError);
         }
+    },
+
+    // Server-Sent Events: a full snapshot on connect, then only the stocks whose analysis changed.
+    // EventSource reconnects on its own (e.g. after the server drops a slow client) and gets a new snapshot;
+    // onError is called while the connection is down.
+    subscribeToAnalysis: (onUpdate: (delta: AnalysisDelta) => void, onError?: () => void) => {
+        const source = new EventSource(`${API_BASE_URL}/analyze/stream`);
+        const handle = (event: MessageEvent) => onUpdate(JSON.parse(event.data) as AnalysisDelta);
+        source.addEventListener('snapshot', handle as EventListener);
+        source.addEventListener('delta', handle as EventListener);
+        if (onError) {
+            source.onerror = () => onError();
+        }
+        return () => source.close();
     }
 }; 
\ No newline at end of file
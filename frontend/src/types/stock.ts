@@ -9,4 +9,11 @@ export interface StockAnalysis {
     isUptrending: boolean;
     hasUnusualVolume: boolean;
     averageVolume: number;
+}
+
+export interface AnalysisDelta {
+    version: number;
+    snapshot: boolean;
+    changed: StockAnalysis[];
+    removed: string[];
 } 
\ No newline at end of file
@@ -0,0 +1,81 @@
+package com.StockGrowth.StockGrowth.cli;
+
+import com.StockGrowth.StockGrowth.service.PriceExportService;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * One-shot bulk export from the command line, e.g.
+ * <pre>
+ * java -jar StockGrowth.jar --spring.main.web-application-type=none \
+ *     --stockgrowth.export.output=prices.arrows --stockgrowth.export.format=arrow \
+ *     --stockgrowth.export.symbols=AAPL,MSFT --stockgrowth.export.from=2024-01-01
+ * </pre>
+ * The application exits once the file is written. Without stockgrowth.export.output the runner does nothing.
+ */
+@Component
+@Log4j2
+public class ExportCommandLineRunner implements CommandLineRunner {
+
+    private final PriceExportService priceExportService;
+    private final ConfigurableApplicationContext context;
+    private final String output;
+    private final String format;
+    private final String symbols;
+    private final String from;
+    private final String to;
+
+    @Autowired
+    public ExportCommandLineRunner(PriceExportService priceExportService,
+                                   ConfigurableApplicationContext context,
+                                   @Value("${stockgrowth.export.output:}") String output,
+                                   @Value("${stockgrowth.export.format:arrow}") String format,
+                                   @Value("${stockgrowth.export.symbols:}") String symbols,
+                                   @Value("${stockgrowth.export.from:}") String from,
+                                   @Value("${stockgrowth.export.to:}") String to) {
+        this.priceExportService = priceExportService;
+        this.context = context;
+        this.output = output;
+        this.format = format;
+        this.symbols = symbols;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        if (output.isBlank()) {
+            return;
+        }
+        PriceExportService.Format exportFormat = PriceExportService.Format.parse(format);
+        List<String> symbolList = symbols.isBlank() ? List.of() : Arrays.stream(symbols.split(","))
+            .map(String::trim)
+            .filter(symbol -> !symbol.isEmpty())
+            .toList();
+        Path path = Paths.get(output);
+
+        long rows;
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(path), 1 << 16)) {
+            rows = priceExportService.export(exportFormat, symbolList,
+                from.isBlank() ? null : LocalDate.parse(from),
+                to.isBlank() ? null : LocalDate.parse(to),
+                out);
+        }
+        log.info("Wrote {} rows to {}", rows, path.toAbsolutePath());
+        System.exit(SpringApplication.exit(context, () -> 0));
+    }
+}
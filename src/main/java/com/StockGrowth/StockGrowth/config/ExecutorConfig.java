@@ -0,0 +1,48 @@
+package com.StockGrowth.StockGrowth.config;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+@Log4j2
+public class ExecutorConfig {
+
+    /**
+     * Executor for blocking upstream HTTP fetches. With spring.threads.virtual.enabled=true on Java 21+
+     * every fetch gets its own virtual thread (concurrency is then bounded by a semaphore in StockService);
+     * otherwise a fixed pool of platform threads is used.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService fetchExecutor(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                                         @Value("${stockgrowth.fetch.pool-size:10}") int poolSize) {
+        if (virtualThreads) {
+            ExecutorService executor = newVirtualThreadPerTaskExecutor();
+            if (executor != null) {
+                log.info("Upstream fetches run on virtual threads");
+                return executor;
+            }
+            log.warn("Virtual threads requested but not supported by Java {}, using a pool of {} threads",
+                Runtime.version().feature(), poolSize);
+        }
+        return Executors.newFixedThreadPool(poolSize);
+    }
+
+    /**
+     * Executors.newVirtualThreadPerTaskExecutor() looked up reflectively so the default build stays on Java 17.
+     * Returns null when the running JVM has no virtual threads.
+     */
+    public static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.StockGrowth.StockGrowth.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "stockgrowth.retention")
+public class RetentionProperties {
+
+    private boolean enabled = true;
+
+    // Spring cron expression for the scheduled retention run (default: daily at 02:30)
+    private String cron = "0 30 2 * * *";
+
+    // Per-table policies keyed by table name, e.g. stockgrowth.retention.tables.historical_prices.retention-days=1825
+    private Map<String, TablePolicy> tables = new LinkedHashMap<>();
+
+    @Data
+    public static class TablePolicy {
+        private int retentionDays = 1825;
+
+        // Column the retention cutoff (and monthly range partitioning) is based on
+        private String dateColumn = "date";
+
+        // Use monthly range partitions when the database supports them; falls back to chunked deletes otherwise
+        private boolean partitioned = true;
+
+        // One-off opt-in: rebuild an unpartitioned table into monthly partitions (full table copy)
+        private boolean convertUnpartitioned = false;
+
+        // Number of future monthly partitions kept ahead of the current month
+        private int partitionsAhead = 2;
+
+        // Rows removed per transaction in the chunked delete fallback
+        private int chunkSize = 1000;
+
+        // Pause between chunks so deletes do not starve the refresh job of locks
+        private long throttleMillis = 50;
+    }
+}
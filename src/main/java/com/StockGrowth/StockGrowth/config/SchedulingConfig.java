@@ -0,0 +1,11 @@
+package com.StockGrowth.StockGrowth.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(RetentionProperties.class)
+public class SchedulingConfig {
+}
@@ -0,0 +1,43 @@
+package com.StockGrowth.StockGrowth.controller;
+
+import com.StockGrowth.StockGrowth.dto.BacktestJob;
+import com.StockGrowth.StockGrowth.dto.BacktestRequest;
+import com.StockGrowth.StockGrowth.service.BacktestService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/backtests")
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:3001"})
+public class BacktestController {
+
+    private final BacktestService backtestService;
+
+    @Autowired
+    public BacktestController(BacktestService backtestService) {
+        this.backtestService = backtestService;
+    }
+
+    @PostMapping
+    public ResponseEntity<?> submitBacktest(@RequestBody(required = false) BacktestRequest request) {
+        try {
+            BacktestJob job = backtestService.submit(request != null ? request : new BacktestRequest());
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body("Invalid backtest request: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getBacktest(@PathVariable String id) {
+        BacktestJob job = backtestService.getJob(id);
+        if (job == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body("No backtest job found with id: " + id);
+        }
+        return ResponseEntity.ok(job);
+    }
+}
@@ -0,0 +1,38 @@
+package com.StockGrowth.StockGrowth.controller;
+
+import com.StockGrowth.StockGrowth.dto.RetentionReport;
+import com.StockGrowth.StockGrowth.service.RetentionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/retention")
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:3001"})
+public class RetentionController {
+
+    private final RetentionService retentionService;
+
+    @Autowired
+    public RetentionController(RetentionService retentionService) {
+        this.retentionService = retentionService;
+    }
+
+    @PostMapping("/run")
+    public ResponseEntity<String> runRetention() {
+        if (!retentionService.startRetention()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body("A retention run is already in progress");
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+            .body("Retention run started; see GET /api/retention/last for the result");
+    }
+
+    @GetMapping("/last")
+    public ResponseEntity<List<RetentionReport>> getLastReports() {
+        return ResponseEntity.ok(retentionService.getLastReports());
+    }
+}
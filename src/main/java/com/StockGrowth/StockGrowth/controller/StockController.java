@@ -1,14 +1,25 @@
 package com.StockGrowth.StockGrowth.controller;
 
+import com.StockGrowth.StockGrowth.dto.CorrelatedStock;
 import com.StockGrowth.StockGrowth.dto.StockAnalysis;
 import com.StockGrowth.StockGrowth.model.HistoricalPrice;
 import com.StockGrowth.StockGrowth.model.Stock;
+import com.StockGrowth.StockGrowth.service.AnalysisStreamService;
+import com.StockGrowth.StockGrowth.service.CorrelationService;
+import com.StockGrowth.StockGrowth.service.PriceExportService;
 import com.StockGrowth.StockGrowth.service.StockService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
@@ -21,10 +32,19 @@ import java.util.stream.Collectors;
 public class StockController {
 
     private final StockService stockService;
+    private final AnalysisStreamService analysisStreamService;
+    private final PriceExportService priceExportService;
+    private final CorrelationService correlationService;
 
     @Autowired
-    public StockController(StockService stockService) {
+    public StockController(StockService stockService,
+                           AnalysisStreamService analysisStreamService,
+                           PriceExportService priceExportService,
+                           CorrelationService correlationService) {
         this.stockService = stockService;
+        this.analysisStreamService = analysisStreamService;
+        this.priceExportService = priceExportService;
+        this.correlationService = correlationService;
     }
 
     @GetMapping("/fetch-under-100m")
@@ -35,10 +55,15 @@ public class StockController {
 
     @GetMapping("/analyze")
     public ResponseEntity<List<StockAnalysis>> analyzeStocks() {
-        List<StockAnalysis> analysis = stockService.analyzeStocks();
+        List<StockAnalysis> analysis = analysisStreamService.getCurrentAnalyses();
         return ResponseEntity.ok(analysis);
     }
 
+    @GetMapping(value = "/analyze/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAnalysis() {
+        return analysisStreamService.subscribe();
+    }
+
     @PostMapping("/refresh-historical-data")
     public ResponseEntity<String> refreshHistoricalData() {
         try {
@@ -52,7 +77,7 @@ public class StockController {
 
     @GetMapping("/analyze/uptrend")
     public ResponseEntity<List<StockAnalysis>> getUptrendingStocks() {
-        List<StockAnalysis> analyses = stockService.analyzeStocks()
+        List<StockAnalysis> analyses = analysisStreamService.getCurrentAnalyses()
             .stream()
             .filter(analysis -> analysis.getIsUptrending() != null && analysis.getIsUptrending())
             .filter(analysis -> analysis.getPriceChange30d() != null)
@@ -70,7 +95,7 @@ public class StockController {
 
     @GetMapping("/analyze/volume-spike")
     public ResponseEntity<List<StockAnalysis>> getUnusualVolumeStocks() {
-        List<StockAnalysis> analyses = stockService.analyzeStocks()
+        List<StockAnalysis> analyses = analysisStreamService.getCurrentAnalyses()
             .stream()
             .filter(analysis -> analysis.getHasUnusualVolume() != null && analysis.getHasUnusualVolume())
             .filter(analysis -> analysis.getVolume() != null && analysis.getAverageVolume() != null && analysis.getAverageVolume() > 0)
@@ -86,7 +111,7 @@ public class StockController {
     @GetMapping("/analyze/gainers")
     public ResponseEntity<List<StockAnalysis>> getTopGainers(
             @RequestParam(defaultValue = "30") String period) {
-        List<StockAnalysis> analyses = stockService.analyzeStocks();
+        List<StockAnalysis> analyses = analysisStreamService.getCurrentAnalyses();
         
         Comparator<StockAnalysis> comparator = switch(period) {
             case "1" -> (a, b) -> compareNullableDoubles(b.getPriceChange1d(), a.getPriceChange1d());
@@ -123,7 +148,7 @@ public class StockController {
             @RequestParam(required = false) Boolean uptrendOnly,
             @RequestParam(required = false) Boolean unusualVolumeOnly) {
         
-        List<StockAnalysis> analyses = stockService.analyzeStocks()
+        List<StockAnalysis> analyses = analysisStreamService.getCurrentAnalyses()
             .stream()
             .filter(analysis -> minMarketCap == null || analysis.getMarketCap() >= minMarketCap)
             .filter(analysis -> maxMarketCap == null || analysis.getMarketCap() <= maxMarketCap)
@@ -135,6 +160,17 @@ public class StockController {
         return ResponseEntity.ok(analyses);
     }
 
+    @GetMapping("/correlations/{symbol}")
+    public ResponseEntity<?> getMostCorrelated(@PathVariable String symbol,
+                                               @RequestParam(defaultValue = "10") int limit) {
+        List<CorrelatedStock> correlated = correlationService.getTopCorrelated(symbol, limit);
+        if (correlated == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body("Not enough price history to correlate symbol: " + symbol);
+        }
+        return ResponseEntity.ok(correlated);
+    }
+
     @GetMapping("/all")
     public ResponseEntity<List<Stock>> getAllStocks() {
         return ResponseEntity.ok(stockService.getAllStocks());
@@ -155,6 +191,30 @@ public class StockController {
         }
     }
 
+    @GetMapping("/historical/export")
+    public ResponseEntity<StreamingResponseBody> exportHistoricalData(
+            @RequestParam(defaultValue = "arrow") String format,
+            @RequestParam(required = false) List<String> symbols,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        PriceExportService.Format exportFormat;
+        try {
+            exportFormat = PriceExportService.Format.parse(format);
+        } catch (IllegalArgumentException e) {
+            // The body type is fixed to StreamingResponseBody so the streaming handler picks this method up
+            byte[] message = e.getMessage().getBytes(StandardCharsets.UTF_8);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .contentType(MediaType.TEXT_PLAIN)
+                .body(out -> out.write(message));
+        }
+        StreamingResponseBody body = out -> priceExportService.export(exportFormat, symbols, from, to, out);
+        return ResponseEntity.ok()
+            .header(HttpHeaders.CONTENT_TYPE, exportFormat.getContentType())
+            .header(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=historical_prices." + exportFormat.getExtension())
+            .body(body);
+    }
+
     @GetMapping("/historical/count")
     public ResponseEntity<?> getHistoricalDataCount() {
         try {
@@ -0,0 +1,17 @@
+package com.StockGrowth.StockGrowth.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalysisDelta {
+    private long version;
+    private boolean snapshot; // true when "changed" holds the full analysis list rather than a delta
+    private List<StockAnalysis> changed;
+    private List<String> removed;
+}
@@ -0,0 +1,18 @@
+package com.StockGrowth.StockGrowth.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class BacktestJob {
+    public enum Status { PENDING, RUNNING, DONE, FAILED }
+
+    private String id;
+    private volatile Status status = Status.PENDING;
+    private BacktestRequest request;
+    private LocalDateTime submittedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile BacktestResult result;
+    private volatile String error;
+}
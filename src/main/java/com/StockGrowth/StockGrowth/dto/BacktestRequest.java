@@ -0,0 +1,15 @@
+package com.StockGrowth.StockGrowth.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+public class BacktestRequest {
+    private LocalDate from; // first signal day (inclusive), null = start of history
+    private LocalDate to;   // last signal day (inclusive), null = end of history
+    private List<String> symbols; // null or empty = whole universe
+    private Integer windowDays; // look-back window per signal day, defaults to the live analysis window
+    private List<Integer> horizons = List.of(1, 5, 20); // forward-return horizons in trading days
+}
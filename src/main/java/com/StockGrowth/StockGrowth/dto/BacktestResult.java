@@ -0,0 +1,29 @@
+package com.StockGrowth.StockGrowth.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class BacktestResult {
+    private int symbols;
+    private long signalDays; // symbol-days evaluated
+    private long durationMillis;
+    private List<SignalStats> stats = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SignalStats {
+        private String signal; // ALL_DAYS is the unconditional baseline
+        private int horizon;
+        private long count;
+        private double hitRate; // share of signals followed by a positive forward return
+        private double meanReturn; // in percent
+        private double stdDevReturn; // in percent
+        private double excessReturn; // meanReturn minus the ALL_DAYS mean, in percent
+    }
+}
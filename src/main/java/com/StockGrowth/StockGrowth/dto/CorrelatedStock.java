@@ -0,0 +1,13 @@
+package com.StockGrowth.StockGrowth.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CorrelatedStock {
+    private String ticker;
+    private double correlation;
+}
@@ -0,0 +1,21 @@
+package com.StockGrowth.StockGrowth.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Daily history of one symbol as primitive arrays in ascending date order
+ * (dates as epoch days), for computations that scan many symbols at once.
+ */
+@Getter
+@AllArgsConstructor
+public class PriceSeries {
+    private final String symbol;
+    private final int[] epochDays;
+    private final double[] prices;
+    private final long[] volumes;
+
+    public int size() {
+        return epochDays.length;
+    }
+}
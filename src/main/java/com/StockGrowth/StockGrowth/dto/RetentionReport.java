@@ -0,0 +1,21 @@
+package com.StockGrowth.StockGrowth.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class RetentionReport {
+    private String table;
+    private String mode; // "partition-drop" or "chunked-delete"
+    private LocalDate cutoff;
+    private long rowsReclaimed;
+    private List<String> partitionsDropped = new ArrayList<>();
+    private List<String> partitionsCreated = new ArrayList<>();
+    private long durationMillis;
+    private LocalDateTime startedAt;
+    private String error;
+}
@@ -1,6 +1,7 @@
 package com.StockGrowth.StockGrowth.dto;
 
 import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -9,6 +10,7 @@ import lombok.Setter;
 @NoArgsConstructor
 @Setter
 @Getter
+@EqualsAndHashCode
 public class StockAnalysis {
     private String ticker;
     private String companyName;
@@ -0,0 +1,23 @@
+package com.StockGrowth.StockGrowth.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.util.Set;
+
+/**
+ * Published by the price series cache after a reload, naming the symbols whose series actually changed
+ * so that derived data can be updated incrementally.
+ */
+@Getter
+public class PriceSeriesUpdatedEvent extends ApplicationEvent {
+
+    private final Set<String> changedSymbols;
+    private final Set<String> removedSymbols;
+
+    public PriceSeriesUpdatedEvent(Object source, Set<String> changedSymbols, Set<String> removedSymbols) {
+        super(source);
+        this.changedSymbols = changedSymbols;
+        this.removedSymbols = removedSymbols;
+    }
+}
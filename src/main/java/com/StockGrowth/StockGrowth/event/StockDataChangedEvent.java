@@ -0,0 +1,21 @@
+package com.StockGrowth.StockGrowth.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Published after the stock universe or the historical prices were rewritten,
+ * so that anything derived from them (analysis snapshot, streams) can be recomputed once.
+ */
+@Getter
+public class StockDataChangedEvent extends ApplicationEvent {
+
+    public enum Reason { UNIVERSE_UPDATED, HISTORICAL_DATA_REFRESHED }
+
+    private final Reason reason;
+
+    public StockDataChangedEvent(Object source, Reason reason) {
+        super(source);
+        this.reason = reason;
+    }
+}
@@ -1,12 +1,14 @@
 package com.StockGrowth.StockGrowth.repository;
 
 import com.StockGrowth.StockGrowth.model.HistoricalPrice;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -22,7 +24,22 @@ public interface HistoricalPriceRepository extends JpaRepository<HistoricalPrice
 
     void deleteBySymbolAndDateBefore(String symbol, LocalDate date);
 
+    // Chunked variant of deleteBySymbolAndDateBefore: fetch one page of ids, then deleteAllByIdInBatch
+    @Query("SELECT h.id FROM HistoricalPrice h WHERE h.symbol = :symbol AND h.date < :date ORDER BY h.date")
+    List<Long> findIdsBySymbolAndDateBefore(String symbol, LocalDate date, Pageable pageable);
+
+    @Query("SELECT DISTINCT h.symbol FROM HistoricalPrice h WHERE h.date < :date")
+    List<String> findSymbolsWithDataBefore(LocalDate date);
+
+    // Every refresh stamps its rows, so this changes whenever any instance refreshes the data
+    @Query("SELECT MAX(h.lastUpdated) FROM HistoricalPrice h")
+    LocalDateTime findLatestUpdate();
+
     List<HistoricalPrice> findBySymbolOrderByDateDesc(String symbol);
+
+    // Latest bar date of every symbol as (symbol, date) pairs, so the analysis can query just its window
+    @Query("SELECT h.symbol, MAX(h.date) FROM HistoricalPrice h GROUP BY h.symbol")
+    List<Object[]> findLatestDatePerSymbol();
     
     List<HistoricalPrice> findBySymbolAndDate(String symbol, LocalDate date);
 
@@ -0,0 +1,388 @@
+package com.StockGrowth.StockGrowth.service;
+
+import com.StockGrowth.StockGrowth.dto.AnalysisDelta;
+import com.StockGrowth.StockGrowth.dto.StockAnalysis;
+import com.StockGrowth.StockGrowth.event.StockDataChangedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Holds the current analysis of the whole universe and pushes changes to Server-Sent Events clients.
+ * The analysis is recomputed once per {@link StockDataChangedEvent}, not once per request; each
+ * client receives a full snapshot on connect and then only the symbols whose analysis changed.
+ * Computations are serialized, and a result computed from data older than the one already published is dropped.
+ * A client whose socket write has been blocked longer than {@code send-timeout-millis} is dropped, and the
+ * send pool gets a replacement thread until that write returns.
+ */
+@Service
+@Log4j2
+public class AnalysisStreamService {
+
+    private static final int SEND_IDLE = 0;
+    private static final int SEND_IN_FLIGHT = 1;
+    private static final int SEND_STALLED = 2;
+
+    private final StockService stockService;
+    private final int clientBufferSize;
+    private final long emitterTimeoutMillis;
+    private final long sendTimeoutNanos;
+    private final ExecutorService recomputeExecutor = Executors.newSingleThreadExecutor();
+    private final ThreadPoolExecutor sendExecutor;
+    private final ReentrantLock sendPoolLock = new ReentrantLock();
+    private final AtomicBoolean recomputePending = new AtomicBoolean(false);
+    private final ReentrantLock stateLock = new ReentrantLock();
+    private final ReentrantLock computeLock = new ReentrantLock();
+    private final AtomicLong dataGeneration = new AtomicLong();
+    private final List<Client> clients = new CopyOnWriteArrayList<>();
+
+    private volatile Map<String, StockAnalysis> current; // null until first computed
+    private volatile long version;
+    private long publishedGeneration = -1; // data generation of current, guarded by stateLock
+
+    @Autowired
+    public AnalysisStreamService(StockService stockService,
+                                 @Value("${stockgrowth.stream.client-buffer-size:32}") int clientBufferSize,
+                                 @Value("${stockgrowth.stream.timeout-millis:1800000}") long emitterTimeoutMillis,
+                                 @Value("${stockgrowth.stream.send-threads:4}") int sendThreads,
+                                 @Value("${stockgrowth.stream.send-timeout-millis:10000}") long sendTimeoutMillis) {
+        this.stockService = stockService;
+        this.clientBufferSize = clientBufferSize;
+        this.emitterTimeoutMillis = emitterTimeoutMillis;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis);
+        this.sendExecutor = new ThreadPoolExecutor(sendThreads, sendThreads, 60, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>());
+    }
+
+    /**
+     * Current analysis list, computed on first use and afterwards only when the underlying data changes.
+     */
+    public List<StockAnalysis> getCurrentAnalyses() {
+        Map<String, StockAnalysis> snapshot = current;
+        if (snapshot == null) {
+            computeLock.lock();
+            try {
+                // Concurrent first requests wait for one computation instead of each running their own
+                if (current == null) {
+                    recompute();
+                }
+            } finally {
+                computeLock.unlock();
+            }
+            snapshot = current;
+        }
+        return new ArrayList<>(snapshot.values());
+    }
+
+    /**
+     * Current analysis list without computing it, or null if nothing has been computed or restored yet.
+     */
+    public List<StockAnalysis> peekCurrentAnalyses() {
+        Map<String, StockAnalysis> snapshot = current;
+        return snapshot != null ? new ArrayList<>(snapshot.values()) : null;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * True when the held analysis was computed (or restored) after the latest data change.
+     */
+    public boolean isCurrent() {
+        stateLock.lock();
+        try {
+            return current != null && publishedGeneration == dataGeneration.get();
+        } finally {
+            stateLock.unlock();
+        }
+    }
+
+    /**
+     * Seeds the analysis from a persisted snapshot so the first request after a restart needs no recomputation.
+     */
+    public void restore(List<StockAnalysis> analyses, long restoredVersion) {
+        Map<String, StockAnalysis> restored = new LinkedHashMap<>();
+        for (StockAnalysis analysis : analyses) {
+            restored.put(analysis.getTicker(), analysis);
+        }
+        stateLock.lock();
+        try {
+            if (current == null) {
+                current = restored;
+                version = restoredVersion;
+                publishedGeneration = dataGeneration.get();
+            }
+        } finally {
+            stateLock.unlock();
+        }
+    }
+
+    public SseEmitter subscribe() {
+        getCurrentAnalyses(); // make sure there is something to snapshot
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        Client client = new Client(emitter, clientBufferSize);
+        emitter.onCompletion(() -> clients.remove(client));
+        emitter.onTimeout(() -> drop(client, "timeout"));
+        emitter.onError(e -> drop(client, "error"));
+
+        // Reading the snapshot, its version and registering the client under the state lock keeps deltas from
+        // slipping in between: every later delta is queued behind the snapshot it applies to
+        stateLock.lock();
+        try {
+            List<StockAnalysis> initial = new ArrayList<>(current.values());
+            clients.add(client);
+            enqueue(client, SseEmitter.event()
+                .name("snapshot")
+                .id(Long.toString(version))
+                .data(new AnalysisDelta(version, true, initial, List.of()), MediaType.APPLICATION_JSON));
+        } finally {
+            stateLock.unlock();
+        }
+        log.debug("Analysis stream client connected ({} open)", clients.size());
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockDataChanged(StockDataChangedEvent event) {
+        log.info("Stock data changed ({}), scheduling analysis recomputation", event.getReason());
+        dataGeneration.incrementAndGet();
+        // Several changes in quick succession collapse into one recomputation
+        if (recomputePending.compareAndSet(false, true)) {
+            try {
+                recomputeExecutor.submit(() -> {
+                    recomputePending.set(false);
+                    computeLock.lock();
+                    try {
+                        recompute();
+                    } catch (Exception e) {
+                        log.error("Error recomputing analysis: {}", e.getMessage());
+                    } finally {
+                        computeLock.unlock();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                log.debug("Shutting down, analysis not recomputed");
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${stockgrowth.stream.heartbeat-millis:20000}")
+    public void heartbeat() {
+        for (Client client : clients) {
+            enqueue(client, SseEmitter.event().comment("heartbeat"));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${stockgrowth.stream.send-check-millis:1000}")
+    public void dropStalledClients() {
+        long now = System.nanoTime();
+        for (Client client : clients) {
+            if (client.sendState.get() == SEND_IN_FLIGHT && now - client.sendStartedNanos > sendTimeoutNanos
+                && client.sendState.compareAndSet(SEND_IN_FLIGHT, SEND_STALLED)) {
+                // The blocked write keeps its thread until the socket times out; lend the pool one meanwhile
+                resizeSendPool(1);
+                drop(client, "send stalled");
+            }
+        }
+    }
+
+    int getClientCount() {
+        return clients.size();
+    }
+
+    /**
+     * Called with computeLock held.
+     */
+    private void recompute() {
+        long generation = dataGeneration.get();
+        List<StockAnalysis> analyses = stockService.analyzeStocks();
+        Map<String, StockAnalysis> next = new LinkedHashMap<>();
+        for (StockAnalysis analysis : analyses) {
+            next.put(analysis.getTicker(), analysis);
+        }
+
+        stateLock.lock();
+        try {
+            if (generation < publishedGeneration) {
+                log.info("Dropping analysis computed from data older than the published version {}", version);
+                return;
+            }
+            publishedGeneration = generation;
+            Map<String, StockAnalysis> previous = current;
+            current = next;
+            if (previous == null) {
+                version++;
+                return;
+            }
+
+            List<StockAnalysis> changed = new ArrayList<>();
+            for (StockAnalysis analysis : analyses) {
+                if (!Objects.equals(previous.get(analysis.getTicker()), analysis)) {
+                    changed.add(analysis);
+                }
+            }
+            List<String> removed = previous.keySet().stream()
+                .filter(ticker -> !next.containsKey(ticker))
+                .toList();
+            if (changed.isEmpty() && removed.isEmpty()) {
+                return;
+            }
+
+            version++;
+            log.info("Analysis version {}: {} changed, {} removed, pushing to {} clients",
+                version, changed.size(), removed.size(), clients.size());
+            AnalysisDelta delta = new AnalysisDelta(version, false, changed, removed);
+            for (Client client : clients) {
+                enqueue(client, SseEmitter.event()
+                    .name("delta")
+                    .id(Long.toString(version))
+                    .data(delta, MediaType.APPLICATION_JSON));
+            }
+        } finally {
+            stateLock.unlock();
+        }
+    }
+
+    private void enqueue(Client client, SseEmitter.SseEventBuilder event) {
+        if (!client.queue.offer(event)) {
+            // Slow consumer: drop it rather than buffer without bound; EventSource reconnects and gets a fresh snapshot
+            drop(client, "buffer full");
+            return;
+        }
+        if (client.draining.compareAndSet(false, true)) {
+            sendExecutor.submit(() -> drain(client));
+        }
+    }
+
+    private void drain(Client client) {
+        boolean failed = false;
+        try {
+            SseEmitter.SseEventBuilder event;
+            while (!client.closed && (event = client.queue.poll()) != null) {
+                send(client, event);
+            }
+        } catch (IOException | IllegalStateException e) {
+            failed = true;
+        } finally {
+            client.draining.set(false);
+        }
+        if (failed) {
+            drop(client, "send failed");
+        } else if (client.closed) {
+            // Dropped while this thread was sending; completing had to wait for the send to return
+            if (client.draining.compareAndSet(false, true)) {
+                client.emitter.complete();
+            }
+        } else if (!client.queue.isEmpty() && client.draining.compareAndSet(false, true)) {
+            // An event may have been queued after the last poll but before the flag was cleared
+            sendExecutor.submit(() -> drain(client));
+        }
+    }
+
+    private void send(Client client, SseEmitter.SseEventBuilder event) throws IOException {
+        client.sendStartedNanos = System.nanoTime();
+        client.sendState.set(SEND_IN_FLIGHT);
+        try {
+            client.emitter.send(event);
+        } finally {
+            if (!client.sendState.compareAndSet(SEND_IN_FLIGHT, SEND_IDLE)) {
+                // Reported as stalled meanwhile: give back the thread lent to the pool
+                client.sendState.set(SEND_IDLE);
+                resizeSendPool(-1);
+            }
+        }
+    }
+
+    private void resizeSendPool(int delta) {
+        sendPoolLock.lock();
+        try {
+            int size = sendExecutor.getCorePoolSize() + delta;
+            // The maximum may never drop below the core size, so the order depends on the direction
+            if (delta > 0) {
+                sendExecutor.setMaximumPoolSize(size);
+                sendExecutor.setCorePoolSize(size);
+            } else {
+                sendExecutor.setCorePoolSize(size);
+                sendExecutor.setMaximumPoolSize(size);
+            }
+        } finally {
+            sendPoolLock.unlock();
+        }
+    }
+
+    private void drop(Client client, String reason) {
+        if (clients.remove(client)) {
+            log.info("Dropping analysis stream client: {}", reason);
+            client.closed = true;
+            client.queue.clear();
+            // The emitter's methods are synchronized: while a send is in flight on the drain thread, complete()
+            // would block the caller (possibly holding stateLock), so that thread completes it when the send returns
+            if (client.draining.compareAndSet(false, true)) {
+                client.emitter.complete();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void cleanup() {
+        for (Client client : clients) {
+            drop(client, "shutting down");
+        }
+        // An in-flight recomputation still uses JPA; let it finish before the persistence beans are destroyed
+        recomputeExecutor.shutdown();
+        sendExecutor.shutdown();
+        try {
+            if (!recomputeExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
+                recomputeExecutor.shutdownNow();
+            }
+            if (!sendExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
+                sendExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            recomputeExecutor.shutdownNow();
+            sendExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class Client {
+        private final SseEmitter emitter;
+        private final Queue<SseEmitter.SseEventBuilder> queue;
+        private final AtomicBoolean draining = new AtomicBoolean(false);
+        private final AtomicInteger sendState = new AtomicInteger(SEND_IDLE);
+        private volatile long sendStartedNanos;
+        private volatile boolean closed;
+
+        private Client(SseEmitter emitter, int bufferSize) {
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+        }
+    }
+}
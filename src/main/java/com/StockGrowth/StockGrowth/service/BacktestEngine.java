@@ -0,0 +1,189 @@
+package com.StockGrowth.StockGrowth.service;
+
+import com.StockGrowth.StockGrowth.dto.BacktestRequest;
+import com.StockGrowth.StockGrowth.dto.BacktestResult;
+import com.StockGrowth.StockGrowth.dto.PriceSeries;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Replays the live signal rules ({@link SignalRules}) over each symbol's history: for every day the window
+ * ending on that day is evaluated exactly like analyzeStockData would, and the forward returns that followed
+ * are accumulated per signal and horizon. Symbols are split across a fork-join pool; each leaf works on the
+ * primitive arrays of a {@link PriceSeries}, so no entities or boxed values are created per day.
+ */
+public class BacktestEngine {
+
+    public static final String[] SIGNALS = {"ALL_DAYS", "UPTREND", "VOLUME_SPIKE", "UPTREND_AND_VOLUME_SPIKE"};
+    private static final int ALL_DAYS = 0;
+    private static final int UPTREND = 1;
+    private static final int VOLUME_SPIKE = 2;
+    private static final int BOTH = 3;
+
+    private static final int SYMBOLS_PER_TASK = 16;
+
+    private final ForkJoinPool pool;
+
+    public BacktestEngine(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public BacktestResult run(PriceSeries[] series, BacktestRequest request) {
+        long start = System.nanoTime();
+        int windowDays = request.getWindowDays() != null ? request.getWindowDays() : SignalRules.WINDOW_DAYS;
+        int[] horizons = request.getHorizons().stream()
+            .mapToInt(Integer::intValue)
+            .filter(h -> h > 0)
+            .sorted()
+            .distinct()
+            .toArray();
+        int fromDay = request.getFrom() != null ? (int) request.getFrom().toEpochDay() : Integer.MIN_VALUE;
+        int toDay = request.getTo() != null ? (int) request.getTo().toEpochDay() : Integer.MAX_VALUE;
+
+        Accumulator total = pool.invoke(
+            new SymbolRangeTask(series, 0, series.length, windowDays, horizons, fromDay, toDay));
+
+        BacktestResult result = total.toResult(horizons);
+        result.setSymbols(series.length);
+        result.setDurationMillis((System.nanoTime() - start) / 1_000_000);
+        return result;
+    }
+
+    static void replay(PriceSeries series, int windowDays, int[] horizons, int fromDay, int toDay, Accumulator acc) {
+        int[] days = series.getEpochDays();
+        double[] prices = series.getPrices();
+        long[] volumes = series.getVolumes();
+        int n = days.length;
+
+        // Prefix sums give the window's average volume in O(1) per day
+        double[] volumePrefix = new double[n + 1];
+        for (int i = 0; i < n; i++) {
+            volumePrefix[i + 1] = volumePrefix[i] + volumes[i];
+        }
+
+        int lo = 0;
+        for (int t = 0; t < n; t++) {
+            while (days[lo] < days[t] - windowDays) {
+                lo++;
+            }
+            if (days[t] < fromDay || days[t] > toDay || !(prices[t] > 0)) {
+                continue;
+            }
+            acc.signalDays++;
+
+            double averageVolume = (volumePrefix[t + 1] - volumePrefix[lo]) / (t + 1 - lo);
+            boolean uptrend = SignalRules.isUptrending(prices, lo, t + 1);
+            boolean volumeSpike = SignalRules.isUnusualVolume(volumes[t], averageVolume);
+
+            for (int h = 0; h < horizons.length; h++) {
+                int future = t + horizons[h];
+                if (future >= n) {
+                    break; // horizons are ascending, later ones are out of range too
+                }
+                double forwardReturn = prices[future] / prices[t] - 1;
+                acc.add(ALL_DAYS, h, forwardReturn);
+                if (uptrend) acc.add(UPTREND, h, forwardReturn);
+                if (volumeSpike) acc.add(VOLUME_SPIKE, h, forwardReturn);
+                if (uptrend && volumeSpike) acc.add(BOTH, h, forwardReturn);
+            }
+        }
+    }
+
+    private static final class SymbolRangeTask extends RecursiveTask<Accumulator> {
+        private final PriceSeries[] series;
+        private final int from;
+        private final int to;
+        private final int windowDays;
+        private final int[] horizons;
+        private final int fromDay;
+        private final int toDay;
+
+        private SymbolRangeTask(PriceSeries[] series, int from, int to, int windowDays, int[] horizons,
+                                int fromDay, int toDay) {
+            this.series = series;
+            this.from = from;
+            this.to = to;
+            this.windowDays = windowDays;
+            this.horizons = horizons;
+            this.fromDay = fromDay;
+            this.toDay = toDay;
+        }
+
+        @Override
+        protected Accumulator compute() {
+            if (to - from <= SYMBOLS_PER_TASK) {
+                Accumulator acc = new Accumulator(horizons.length);
+                for (int i = from; i < to; i++) {
+                    replay(series[i], windowDays, horizons, fromDay, toDay, acc);
+                }
+                return acc;
+            }
+            int mid = (from + to) >>> 1;
+            SymbolRangeTask left = new SymbolRangeTask(series, from, mid, windowDays, horizons, fromDay, toDay);
+            left.fork();
+            Accumulator right = new SymbolRangeTask(series, mid, to, windowDays, horizons, fromDay, toDay).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    /**
+     * Count, hits, sum and sum of squares of forward returns, flattened as [signal * horizons + horizon].
+     */
+    static final class Accumulator {
+        private final int horizons;
+        private final long[] count;
+        private final long[] hits;
+        private final double[] sum;
+        private final double[] sumSquares;
+        private long signalDays;
+
+        Accumulator(int horizons) {
+            this.horizons = horizons;
+            int cells = SIGNALS.length * horizons;
+            this.count = new long[cells];
+            this.hits = new long[cells];
+            this.sum = new double[cells];
+            this.sumSquares = new double[cells];
+        }
+
+        void add(int signal, int horizon, double forwardReturn) {
+            int cell = signal * horizons + horizon;
+            count[cell]++;
+            if (forwardReturn > 0) hits[cell]++;
+            sum[cell] += forwardReturn;
+            sumSquares[cell] += forwardReturn * forwardReturn;
+        }
+
+        Accumulator merge(Accumulator other) {
+            for (int i = 0; i < count.length; i++) {
+                count[i] += other.count[i];
+                hits[i] += other.hits[i];
+                sum[i] += other.sum[i];
+                sumSquares[i] += other.sumSquares[i];
+            }
+            signalDays += other.signalDays;
+            return this;
+        }
+
+        BacktestResult toResult(int[] horizonDays) {
+            BacktestResult result = new BacktestResult();
+            result.setSignalDays(signalDays);
+            List<BacktestResult.SignalStats> stats = result.getStats();
+            for (int s = 0; s < SIGNALS.length; s++) {
+                for (int h = 0; h < horizons; h++) {
+                    int cell = s * horizons + h;
+                    long n = count[cell];
+                    double mean = n > 0 ? sum[cell] / n : 0.0;
+                    double variance = n > 1 ? Math.max(0, (sumSquares[cell] - n * mean * mean) / (n - 1)) : 0.0;
+                    double baseline = count[h] > 0 ? sum[h] / count[h] : 0.0;
+                    stats.add(new BacktestResult.SignalStats(SIGNALS[s], horizonDays[h], n,
+                        n > 0 ? (double) hits[cell] / n : 0.0,
+                        mean * 100, Math.sqrt(variance) * 100, (mean - baseline) * 100));
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.StockGrowth.StockGrowth.service;
+
+import com.StockGrowth.StockGrowth.dto.BacktestJob;
+import com.StockGrowth.StockGrowth.dto.BacktestRequest;
+import com.StockGrowth.StockGrowth.dto.BacktestResult;
+import com.StockGrowth.StockGrowth.dto.PriceSeries;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Runs backtests as asynchronous jobs over the in-memory price series: one job at a time,
+ * each parallelized across symbols by {@link BacktestEngine}. Only the most recent jobs are kept.
+ */
+@Service
+@Log4j2
+public class BacktestService {
+
+    private final PriceSeriesCache priceSeriesCache;
+    private final ForkJoinPool pool;
+    private final BacktestEngine engine;
+    private final ExecutorService jobExecutor = Executors.newSingleThreadExecutor();
+    private final Map<String, BacktestJob> jobs;
+
+    @Autowired
+    public BacktestService(PriceSeriesCache priceSeriesCache,
+                           @Value("${stockgrowth.backtest.parallelism:0}") int parallelism,
+                           @Value("${stockgrowth.backtest.max-jobs:20}") int maxJobs) {
+        this.priceSeriesCache = priceSeriesCache;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.engine = new BacktestEngine(pool);
+        this.jobs = Collections.synchronizedMap(new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, BacktestJob> eldest) {
+                return size() > maxJobs;
+            }
+        });
+    }
+
+    /**
+     * Queues a backtest; throws IllegalArgumentException (before queuing) if the request is invalid.
+     */
+    public BacktestJob submit(BacktestRequest request) {
+        validate(request);
+        BacktestJob job = new BacktestJob();
+        job.setId(UUID.randomUUID().toString());
+        job.setRequest(request);
+        job.setSubmittedAt(LocalDateTime.now());
+        jobs.put(job.getId(), job);
+
+        jobExecutor.submit(() -> {
+            job.setStatus(BacktestJob.Status.RUNNING);
+            try {
+                job.setResult(run(request));
+                job.setStatus(BacktestJob.Status.DONE);
+            } catch (Exception e) {
+                log.error("Backtest {} failed: {}", job.getId(), e.getMessage());
+                job.setError(e.getMessage());
+                job.setStatus(BacktestJob.Status.FAILED);
+            }
+            job.setFinishedAt(LocalDateTime.now());
+        });
+        return job;
+    }
+
+    static void validate(BacktestRequest request) {
+        if (request.getWindowDays() != null && request.getWindowDays() < 1) {
+            throw new IllegalArgumentException("windowDays must be at least 1");
+        }
+        List<Integer> horizons = request.getHorizons();
+        if (horizons == null || horizons.isEmpty()) {
+            throw new IllegalArgumentException("horizons must contain at least one value");
+        }
+        if (horizons.stream().anyMatch(horizon -> horizon == null || horizon < 1)) {
+            throw new IllegalArgumentException("horizons must be positive numbers of trading days");
+        }
+        if (request.getFrom() != null && request.getTo() != null && request.getFrom().isAfter(request.getTo())) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+    }
+
+    public BacktestJob getJob(String id) {
+        return jobs.get(id);
+    }
+
+    public BacktestResult run(BacktestRequest request) {
+        Map<String, PriceSeries> all = priceSeriesCache.getAll();
+        List<String> symbols = request.getSymbols();
+        PriceSeries[] series = symbols == null || symbols.isEmpty()
+            ? all.values().toArray(new PriceSeries[0])
+            : symbols.stream().map(all::get).filter(Objects::nonNull).toArray(PriceSeries[]::new);
+
+        BacktestResult result = engine.run(series, request);
+        log.info("Backtest over {} symbols ({} symbol-days) finished in {} ms",
+            result.getSymbols(), result.getSignalDays(), result.getDurationMillis());
+        return result;
+    }
+
+    @PreDestroy
+    public void cleanup() {
+        jobExecutor.shutdownNow();
+        pool.shutdownNow();
+    }
+}
@@ -0,0 +1,338 @@
+package com.StockGrowth.StockGrowth.service;
+
+import com.StockGrowth.StockGrowth.dto.CorrelatedStock;
+import com.StockGrowth.StockGrowth.dto.PriceSeries;
+import com.StockGrowth.StockGrowth.event.PriceSeriesUpdatedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Pairwise Pearson correlation of daily returns across the universe.
+ * <p>
+ * Returns are aligned on the union of trading dates of the last {@code lookback-days} dates; symbols covering
+ * less than {@code min-coverage} of them are left out. Each remaining return vector is centered, missing
+ * days are set to the mean (zero after centering) and the vector is scaled to unit length, so that the
+ * correlation of two symbols is the dot product of their rows. The symmetric matrix is computed in square
+ * tiles of {@code tile-size} rows, in parallel, with a SIMD kernel when the Vector API is available.
+ * After a price reload only the rows and columns of changed symbols are recomputed, as long as the date
+ * grid and the set of symbols are unchanged.
+ */
+@Service
+@Log4j2
+public class CorrelationService {
+
+    private final PriceSeriesCache priceSeriesCache;
+    private final int lookbackDays;
+    private final double minCoverage;
+    private final int tileSize;
+    private final ForkJoinPool pool;
+    private final DotProductKernel kernel;
+    private final ExecutorService updateExecutor = Executors.newSingleThreadExecutor();
+    private final ReentrantLock computeLock = new ReentrantLock();
+
+    private volatile Matrix matrix; // null until first computed
+
+    @Autowired
+    public CorrelationService(PriceSeriesCache priceSeriesCache,
+                              @Value("${stockgrowth.correlation.lookback-days:60}") int lookbackDays,
+                              @Value("${stockgrowth.correlation.min-coverage:0.8}") double minCoverage,
+                              @Value("${stockgrowth.correlation.tile-size:64}") int tileSize,
+                              @Value("${stockgrowth.correlation.parallelism:0}") int parallelism) {
+        this.priceSeriesCache = priceSeriesCache;
+        this.lookbackDays = lookbackDays;
+        this.minCoverage = minCoverage;
+        this.tileSize = Math.max(1, tileSize);
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.kernel = DotProductKernel.best();
+        log.info("Correlation kernel: {}", kernel.name());
+    }
+
+    /**
+     * The {@code limit} symbols whose returns correlate most with {@code symbol}, or null if the symbol
+     * has no (or not enough) price history.
+     */
+    public List<CorrelatedStock> getTopCorrelated(String symbol, int limit) {
+        Matrix current = getMatrix();
+        Integer row = current.index.get(symbol);
+        if (row == null) {
+            return null;
+        }
+
+        int n = current.symbols.length;
+        PriorityQueue<Integer> top = new PriorityQueue<>(
+            (a, b) -> Float.compare(current.correlations[row * n + a], current.correlations[row * n + b]));
+        for (int j = 0; j < n; j++) {
+            if (j == row) {
+                continue;
+            }
+            top.offer(j);
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+
+        List<CorrelatedStock> result = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            int j = top.poll();
+            result.add(new CorrelatedStock(current.symbols[j], current.correlations[row * n + j]));
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    @EventListener
+    public void onPriceSeriesUpdated(PriceSeriesUpdatedEvent event) {
+        try {
+            updateExecutor.submit(() -> {
+                // Checked under the lock: a first computation still running may have read the series before
+                // this reload, so the update applies once it has finished
+                computeLock.lock();
+                try {
+                    if (matrix != null) {
+                        update(event.getChangedSymbols(), event.getRemovedSymbols());
+                    } // otherwise nothing computed yet, the first request computes from the current series
+                } catch (Exception e) {
+                    log.error("Error updating correlation matrix: {}", e.getMessage());
+                } finally {
+                    computeLock.unlock();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.debug("Shutting down, correlation matrix not updated");
+        }
+    }
+
+    private Matrix getMatrix() {
+        Matrix current = matrix;
+        if (current == null) {
+            computeLock.lock();
+            try {
+                if (matrix == null) {
+                    matrix = computeFull(buildReturns(priceSeriesCache.getAll().values()));
+                }
+                current = matrix;
+            } finally {
+                computeLock.unlock();
+            }
+        }
+        return current;
+    }
+
+    private void update(Set<String> changed, Set<String> removed) {
+        long start = System.nanoTime();
+        Matrix previous = matrix;
+        Returns returns = buildReturns(priceSeriesCache.getAll().values());
+
+        boolean sameShape = removed.isEmpty()
+            && Arrays.equals(previous.grid, returns.grid)
+            && Arrays.equals(previous.symbols, returns.symbols);
+        int[] rows = changed.stream()
+            .map(returns.index::get)
+            .filter(Objects::nonNull)
+            .mapToInt(Integer::intValue)
+            .sorted()
+            .toArray();
+
+        if (!sameShape || rows.length > returns.symbols.length / 4) {
+            matrix = computeFull(returns);
+            return;
+        }
+        if (rows.length == 0) {
+            return;
+        }
+
+        int n = returns.symbols.length;
+        int t = returns.length;
+        float[] correlations = previous.correlations.clone();
+        runParallel(IntStream.of(rows), i -> {
+            for (int j = 0; j < n; j++) {
+                float value = (float) kernel.dot(returns.z, i * t, returns.z, j * t, t);
+                correlations[i * n + j] = value;
+                correlations[j * n + i] = value;
+            }
+        });
+        matrix = new Matrix(returns.symbols, returns.index, returns.grid, correlations);
+        log.info("Updated correlations of {} of {} symbols in {} ms",
+            rows.length, n, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private Matrix computeFull(Returns returns) {
+        long start = System.nanoTime();
+        int n = returns.symbols.length;
+        int t = returns.length;
+        float[] correlations = new float[n * n];
+        int tiles = (n + tileSize - 1) / tileSize;
+
+        // Upper-triangle tile pairs; within a tile the rows of both blocks stay in cache while all pairs are formed
+        List<int[]> tilePairs = new ArrayList<>();
+        for (int bi = 0; bi < tiles; bi++) {
+            for (int bj = bi; bj < tiles; bj++) {
+                tilePairs.add(new int[]{bi, bj});
+            }
+        }
+        runParallel(IntStream.range(0, tilePairs.size()), p -> {
+            int[] pair = tilePairs.get(p);
+            int iEnd = Math.min(n, (pair[0] + 1) * tileSize);
+            int jEnd = Math.min(n, (pair[1] + 1) * tileSize);
+            for (int i = pair[0] * tileSize; i < iEnd; i++) {
+                int jStart = pair[0] == pair[1] ? i : pair[1] * tileSize;
+                for (int j = jStart; j < jEnd; j++) {
+                    float value = (float) kernel.dot(returns.z, i * t, returns.z, j * t, t);
+                    correlations[i * n + j] = value;
+                    correlations[j * n + i] = value;
+                }
+            }
+        });
+
+        log.info("Computed {}x{} correlation matrix over {} returns in {} ms ({})",
+            n, n, t, (System.nanoTime() - start) / 1_000_000, kernel.name());
+        return new Matrix(returns.symbols, returns.index, returns.grid, correlations);
+    }
+
+    private Returns buildReturns(Collection<PriceSeries> universe) {
+        // Date grid: the last lookbackDays + 1 dates on which any symbol traded
+        int[] grid = universe.stream()
+            .flatMapToInt(series -> {
+                int[] days = series.getEpochDays();
+                return Arrays.stream(days, Math.max(0, days.length - lookbackDays - 1), days.length);
+            })
+            .distinct()
+            .sorted()
+            .toArray();
+        grid = Arrays.copyOfRange(grid, Math.max(0, grid.length - lookbackDays - 1), grid.length);
+        int t = Math.max(0, grid.length - 1);
+
+        List<PriceSeries> sorted = new ArrayList<>(universe);
+        sorted.sort((a, b) -> a.getSymbol().compareTo(b.getSymbol()));
+
+        double[] z = new double[sorted.size() * t];
+        List<String> symbols = new ArrayList<>();
+        double[] aligned = new double[grid.length];
+        double[] row = new double[t];
+        for (PriceSeries series : sorted) {
+            alignToGrid(series, grid, aligned);
+            if (normalizeReturns(aligned, row)) {
+                System.arraycopy(row, 0, z, symbols.size() * t, t);
+                symbols.add(series.getSymbol());
+            }
+        }
+
+        Map<String, Integer> index = new HashMap<>(symbols.size() * 2);
+        for (int i = 0; i < symbols.size(); i++) {
+            index.put(symbols.get(i), i);
+        }
+        return new Returns(symbols.toArray(new String[0]), index, grid, t,
+            Arrays.copyOf(z, symbols.size() * t));
+    }
+
+    private static void alignToGrid(PriceSeries series, int[] grid, double[] aligned) {
+        int[] days = series.getEpochDays();
+        double[] prices = series.getPrices();
+        int k = 0;
+        int first = grid.length > 0 ? Arrays.binarySearch(days, grid[0]) : days.length;
+        int start = first >= 0 ? first : -first - 1;
+        Arrays.fill(aligned, Double.NaN);
+        for (int i = start; i < days.length && k < grid.length; i++) {
+            while (k < grid.length && grid[k] < days[i]) {
+                k++;
+            }
+            if (k < grid.length && grid[k] == days[i] && prices[i] > 0) {
+                aligned[k] = prices[i];
+            }
+        }
+    }
+
+    /**
+     * Turns grid-aligned prices into a centered, unit-length return vector; false if coverage is too low.
+     */
+    private boolean normalizeReturns(double[] aligned, double[] row) {
+        int t = row.length;
+        int valid = 0;
+        double sum = 0;
+        for (int k = 0; k < t; k++) {
+            double previous = aligned[k];
+            double current = aligned[k + 1];
+            if (Double.isNaN(previous) || Double.isNaN(current)) {
+                row[k] = Double.NaN;
+            } else {
+                row[k] = current / previous - 1;
+                sum += row[k];
+                valid++;
+            }
+        }
+        if (t == 0 || valid < Math.max(2, minCoverage * t)) {
+            return false;
+        }
+
+        double mean = sum / valid;
+        double squares = 0;
+        for (int k = 0; k < t; k++) {
+            row[k] = Double.isNaN(row[k]) ? 0.0 : row[k] - mean;
+            squares += row[k] * row[k];
+        }
+        if (squares == 0) {
+            return false; // constant price, correlation undefined
+        }
+        double scale = 1 / Math.sqrt(squares);
+        for (int k = 0; k < t; k++) {
+            row[k] *= scale;
+        }
+        return true;
+    }
+
+    private void runParallel(IntStream work, IntConsumer action) {
+        try {
+            pool.submit(() -> work.parallel().forEach(action)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Correlation computation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Correlation computation failed", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void cleanup() {
+        // Let an in-flight update finish on the pool before the pool itself is stopped
+        updateExecutor.shutdown();
+        try {
+            if (!updateExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
+                updateExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            updateExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        pool.shutdownNow();
+    }
+
+    private record Returns(String[] symbols, Map<String, Integer> index, int[] grid, int length, double[] z) {
+    }
+
+    private record Matrix(String[] symbols, Map<String, Integer> index, int[] grid, float[] correlations) {
+    }
+}
@@ -0,0 +1,52 @@
+package com.StockGrowth.StockGrowth.service;
+
+/**
+ * Dot product of two equally long slices of double arrays, the inner loop of the correlation matrix.
+ * {@link #best()} picks the JDK Vector API implementation when the jdk.incubator.vector module is
+ * available (--add-modules jdk.incubator.vector) and a plain scalar loop otherwise.
+ */
+public interface DotProductKernel {
+
+    double dot(double[] a, int aOffset, double[] b, int bOffset, int length);
+
+    String name();
+
+    static DotProductKernel scalar() {
+        return new DotProductKernel() {
+            @Override
+            public double dot(double[] a, int aOffset, double[] b, int bOffset, int length) {
+                // Four independent accumulators let the JIT pipeline the multiply-adds
+                double s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+                int i = 0;
+                for (; i + 3 < length; i += 4) {
+                    s0 += a[aOffset + i] * b[bOffset + i];
+                    s1 += a[aOffset + i + 1] * b[bOffset + i + 1];
+                    s2 += a[aOffset + i + 2] * b[bOffset + i + 2];
+                    s3 += a[aOffset + i + 3] * b[bOffset + i + 3];
+                }
+                for (; i < length; i++) {
+                    s0 += a[aOffset + i] * b[bOffset + i];
+                }
+                return (s0 + s1) + (s2 + s3);
+            }
+
+            @Override
+            public String name() {
+                return "scalar";
+            }
+        };
+    }
+
+    static DotProductKernel best() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                return (DotProductKernel) Class.forName("com.StockGrowth.StockGrowth.service.VectorDotProductKernel")
+                    .getDeclaredConstructor()
+                    .newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // fall through to the scalar loop
+            }
+        }
+        return scalar();
+    }
+}
@@ -0,0 +1,220 @@
+package com.StockGrowth.StockGrowth.service;
+
+import lombok.extern.log4j.Log4j2;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowStreamWriter;
+import org.apache.arrow.vector.types.DateUnit;
+import org.apache.arrow.vector.types.FloatingPointPrecision;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams historical_prices (optionally filtered by symbols and date range) straight from a forward-only
+ * JDBC cursor into the output, without materializing entities: as an Arrow IPC stream
+ * (symbol, date, price, volume) or as gzip'd CSV.
+ */
+@Service
+@Log4j2
+public class PriceExportService {
+
+    public enum Format {
+        ARROW("application/vnd.apache.arrow.stream", "arrows"),
+        CSV("application/gzip", "csv.gz");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        /**
+         * Case-insensitive lookup; unknown names are rejected rather than falling back to a default.
+         */
+        public static Format parse(String name) {
+            for (Format format : values()) {
+                if (format.name().equalsIgnoreCase(name)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Unknown export format: " + name + " (expected arrow or csv)");
+        }
+    }
+
+    private static final Schema ARROW_SCHEMA = new Schema(List.of(
+        new Field("symbol", FieldType.notNullable(ArrowType.Utf8.INSTANCE), null),
+        new Field("date", FieldType.notNullable(new ArrowType.Date(DateUnit.DAY)), null),
+        new Field("price", FieldType.notNullable(new ArrowType.FloatingPoint(FloatingPointPrecision.DOUBLE)), null),
+        new Field("volume", FieldType.notNullable(new ArrowType.Int(64, true)), null)));
+
+    private final JdbcTemplate cursorTemplate;
+    private final int batchSize;
+
+    @Autowired
+    public PriceExportService(DataSource dataSource,
+                              @Value("${stockgrowth.export.fetch-size:1000}") int fetchSize,
+                              @Value("${stockgrowth.export.batch-size:8192}") int batchSize) {
+        this.cursorTemplate = new JdbcTemplate(dataSource);
+        // MySQL Connector/J only streams row by row with Integer.MIN_VALUE; other drivers honour a normal fetch size
+        this.cursorTemplate.setFetchSize(isMySql(cursorTemplate) ? Integer.MIN_VALUE : fetchSize);
+        this.batchSize = batchSize;
+    }
+
+    public long export(Format format, List<String> symbols, LocalDate from, LocalDate to, OutputStream out)
+            throws IOException {
+        long start = System.nanoTime();
+        long rows = switch (format) {
+            case ARROW -> exportArrow(symbols, from, to, out);
+            case CSV -> exportCsv(symbols, from, to, out);
+        };
+        log.info("Exported {} price rows as {} in {} ms", rows, format, (System.nanoTime() - start) / 1_000_000);
+        return rows;
+    }
+
+    private long exportCsv(List<String> symbols, LocalDate from, LocalDate to, OutputStream out) throws IOException {
+        GZIPOutputStream gzip = new GZIPOutputStream(out, 1 << 16);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(gzip, StandardCharsets.UTF_8), 1 << 16);
+        writer.write("symbol,date,price,volume\n");
+        long[] rows = {0};
+        query(symbols, from, to, rs -> {
+            try {
+                writer.write(rs.getString(1));
+                writer.write(',');
+                writer.write(rs.getDate(2).toLocalDate().toString());
+                writer.write(',');
+                writer.write(Double.toString(rs.getDouble(3)));
+                writer.write(',');
+                writer.write(Long.toString(rs.getLong(4)));
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            rows[0]++;
+        });
+        writer.flush();
+        gzip.finish();
+        return rows[0];
+    }
+
+    private long exportArrow(List<String> symbols, LocalDate from, LocalDate to, OutputStream out) throws IOException {
+        try (BufferAllocator allocator = new RootAllocator();
+             VectorSchemaRoot root = VectorSchemaRoot.create(ARROW_SCHEMA, allocator);
+             ArrowStreamWriter writer = new ArrowStreamWriter(root, null, Channels.newChannel(out))) {
+            VarCharVector symbolVector = (VarCharVector) root.getVector("symbol");
+            DateDayVector dateVector = (DateDayVector) root.getVector("date");
+            Float8Vector priceVector = (Float8Vector) root.getVector("price");
+            BigIntVector volumeVector = (BigIntVector) root.getVector("volume");
+            root.allocateNew();
+            writer.start();
+
+            long[] rows = {0};
+            int[] batchRows = {0};
+            query(symbols, from, to, rs -> {
+                int i = batchRows[0];
+                symbolVector.setSafe(i, rs.getString(1).getBytes(StandardCharsets.UTF_8));
+                dateVector.setSafe(i, (int) rs.getDate(2).toLocalDate().toEpochDay());
+                priceVector.setSafe(i, rs.getDouble(3));
+                volumeVector.setSafe(i, rs.getLong(4));
+                batchRows[0]++;
+                rows[0]++;
+                if (batchRows[0] == batchSize) {
+                    writeBatch(root, writer, batchRows[0]);
+                    batchRows[0] = 0;
+                }
+            });
+            if (batchRows[0] > 0) {
+                writeBatch(root, writer, batchRows[0]);
+            }
+            writer.end();
+            return rows[0];
+        }
+    }
+
+    private void writeBatch(VectorSchemaRoot root, ArrowStreamWriter writer, int rowCount) {
+        root.setRowCount(rowCount);
+        try {
+            writer.writeBatch();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        for (FieldVector vector : root.getFieldVectors()) {
+            vector.reset();
+        }
+    }
+
+    private void query(List<String> symbols, LocalDate from, LocalDate to, RowCallbackHandler handler)
+            throws IOException {
+        StringBuilder sql = new StringBuilder("SELECT symbol, date, price, volume FROM historical_prices WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        if (symbols != null && !symbols.isEmpty()) {
+            sql.append(" AND symbol IN (").append(String.join(", ", Collections.nCopies(symbols.size(), "?"))).append(")");
+            args.addAll(symbols);
+        }
+        if (from != null) {
+            sql.append(" AND date >= ?");
+            args.add(Date.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(" AND date <= ?");
+            args.add(Date.valueOf(to));
+        }
+        sql.append(" ORDER BY symbol, date");
+
+        try {
+            cursorTemplate.query(sql.toString(), handler, args.toArray());
+        } catch (UncheckedIOException e) {
+            // Client went away mid-stream; surface the original I/O error
+            throw e.getCause();
+        }
+    }
+
+    private static boolean isMySql(JdbcTemplate template) {
+        try {
+            String product = template.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            return product != null && product.toLowerCase().contains("mysql");
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.StockGrowth.StockGrowth.service;
+
+import com.StockGrowth.StockGrowth.dto.PriceSeries;
+import com.StockGrowth.StockGrowth.event.PriceSeriesUpdatedEvent;
+import com.StockGrowth.StockGrowth.event.StockDataChangedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Date;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory copy of historical_prices as one {@link PriceSeries} per symbol. Loaded on first use
+ * (or restored from the startup snapshot) and reloaded after every {@link StockDataChangedEvent}.
+ */
+@Service
+@Log4j2
+public class PriceSeriesCache {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ExecutorService reloadExecutor = Executors.newSingleThreadExecutor();
+    private final AtomicBoolean reloadPending = new AtomicBoolean(false);
+    private final ReentrantLock loadLock = new ReentrantLock();
+    private final AtomicLong dataGeneration = new AtomicLong();
+
+    private volatile long loadedGeneration = -1; // data generation of series
+
+    private volatile Map<String, PriceSeries> series; // null until loaded
+
+    @Autowired
+    public PriceSeriesCache(JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+    }
+
+    public Map<String, PriceSeries> getAll() {
+        Map<String, PriceSeries> current = series;
+        if (current == null) {
+            loadLock.lock();
+            try {
+                if (series == null) {
+                    reload();
+                }
+                current = series;
+            } finally {
+                loadLock.unlock();
+            }
+        }
+        return current;
+    }
+
+    public PriceSeries get(String symbol) {
+        return getAll().get(symbol);
+    }
+
+    /**
+     * Whatever is currently held, without triggering a load (used when writing the snapshot).
+     */
+    public Map<String, PriceSeries> peek() {
+        return series;
+    }
+
+    /**
+     * True when the held series were loaded (or restored) after the latest data change, i.e. no reload is pending.
+     */
+    public boolean isCurrent() {
+        return series != null && loadedGeneration == dataGeneration.get();
+    }
+
+    public void restore(Map<String, PriceSeries> restored) {
+        loadLock.lock();
+        try {
+            if (series == null) {
+                series = Collections.unmodifiableMap(new HashMap<>(restored));
+                loadedGeneration = dataGeneration.get();
+            }
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockDataChanged(StockDataChangedEvent event) {
+        dataGeneration.incrementAndGet();
+        if (reloadPending.compareAndSet(false, true)) {
+            try {
+                reloadExecutor.submit(() -> {
+                    reloadPending.set(false);
+                    loadLock.lock();
+                    try {
+                        reload();
+                    } catch (Exception e) {
+                        log.error("Error reloading price series: {}", e.getMessage());
+                    } finally {
+                        loadLock.unlock();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                log.debug("Shutting down, price series not reloaded");
+            }
+        }
+    }
+
+    private void reload() {
+        long start = System.nanoTime();
+        long generation = dataGeneration.get();
+        Map<String, PriceSeries> loaded = new HashMap<>();
+        SeriesBuilder builder = new SeriesBuilder();
+
+        // Rows arrive grouped by symbol, so each series is finished as soon as the symbol changes
+        jdbcTemplate.query("SELECT symbol, date, price, volume FROM historical_prices ORDER BY symbol, date", rs -> {
+            String symbol = rs.getString(1);
+            if (!symbol.equals(builder.symbol)) {
+                builder.finishInto(loaded);
+                builder.symbol = symbol;
+            }
+            Date date = rs.getDate(2);
+            builder.add((int) date.toLocalDate().toEpochDay(), rs.getDouble(3), rs.getLong(4));
+        });
+        builder.finishInto(loaded);
+
+        Map<String, PriceSeries> previous = series;
+        series = Collections.unmodifiableMap(loaded);
+        loadedGeneration = generation;
+        log.info("Loaded price series for {} symbols in {} ms", loaded.size(), (System.nanoTime() - start) / 1_000_000);
+
+        if (previous != null) {
+            Set<String> changed = new HashSet<>();
+            for (PriceSeries current : loaded.values()) {
+                PriceSeries before = previous.get(current.getSymbol());
+                if (before == null
+                        || !Arrays.equals(before.getEpochDays(), current.getEpochDays())
+                        || !Arrays.equals(before.getPrices(), current.getPrices())
+                        || !Arrays.equals(before.getVolumes(), current.getVolumes())) {
+                    changed.add(current.getSymbol());
+                }
+            }
+            Set<String> removed = new HashSet<>(previous.keySet());
+            removed.removeAll(loaded.keySet());
+            if (!changed.isEmpty() || !removed.isEmpty()) {
+                eventPublisher.publishEvent(new PriceSeriesUpdatedEvent(this, changed, removed));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void cleanup() {
+        // Let an in-flight reload finish its query before the DataSource is closed
+        reloadExecutor.shutdown();
+        try {
+            if (!reloadExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
+                reloadExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            reloadExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class SeriesBuilder {
+        private String symbol;
+        private int size;
+        private int[] days = new int[64];
+        private double[] prices = new double[64];
+        private long[] volumes = new long[64];
+
+        private void add(int day, double price, long volume) {
+            if (size == days.length) {
+                days = Arrays.copyOf(days, size * 2);
+                prices = Arrays.copyOf(prices, size * 2);
+                volumes = Arrays.copyOf(volumes, size * 2);
+            }
+            days[size] = day;
+            prices[size] = price;
+            volumes[size] = volume;
+            size++;
+        }
+
+        private void finishInto(Map<String, PriceSeries> target) {
+            if (symbol != null && size > 0) {
+                target.put(symbol, new PriceSeries(symbol,
+                    Arrays.copyOf(days, size), Arrays.copyOf(prices, size), Arrays.copyOf(volumes, size)));
+            }
+            size = 0;
+        }
+    }
+}
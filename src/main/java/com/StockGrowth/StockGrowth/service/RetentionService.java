@@ -0,0 +1,324 @@
+package com.StockGrowth.StockGrowth.service;
+
+import com.StockGrowth.StockGrowth.config.RetentionProperties;
+import com.StockGrowth.StockGrowth.config.RetentionProperties.TablePolicy;
+import com.StockGrowth.StockGrowth.dto.RetentionReport;
+import com.StockGrowth.StockGrowth.repository.HistoricalPriceRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Applies the per-table retention policies from {@link RetentionProperties}.
+ * On MySQL/MariaDB tables that are range partitioned by month, expired partitions are dropped
+ * (a metadata operation); everywhere else expired rows are removed in small throttled chunks.
+ */
+@Service
+@Log4j2
+public class RetentionService {
+
+    public static final String HISTORICAL_PRICES = "historical_prices";
+
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+    private static final Pattern MONTHLY_PARTITION = Pattern.compile("p(\\d{4})(\\d{2})");
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+    private static final String MAX_PARTITION = "pmax";
+
+    private final RetentionProperties properties;
+    private final HistoricalPriceRepository historicalPriceRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService runExecutor = Executors.newSingleThreadExecutor();
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private volatile List<RetentionReport> lastReports = List.of();
+
+    @Autowired
+    public RetentionService(RetentionProperties properties,
+                            HistoricalPriceRepository historicalPriceRepository,
+                            JdbcTemplate jdbcTemplate,
+                            TransactionTemplate transactionTemplate) {
+        this.properties = properties;
+        this.historicalPriceRepository = historicalPriceRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Scheduled(cron = "${stockgrowth.retention.cron:0 30 2 * * *}")
+    public void scheduledRun() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        // In the background: the shared scheduler thread also runs the stream heartbeats
+        try {
+            if (!startRetention()) {
+                log.info("Retention run already in progress, skipping");
+            }
+        } catch (RejectedExecutionException e) {
+            log.debug("Shutting down, scheduled retention run skipped");
+        }
+    }
+
+    public List<RetentionReport> runRetention() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Retention run already in progress, skipping");
+            return lastReports;
+        }
+        try {
+            return applyPolicies();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Starts a run in the background (a throttled chunked delete can take a long time);
+     * false if a run is already in progress.
+     */
+    public boolean startRetention() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            runExecutor.submit(() -> {
+                try {
+                    applyPolicies();
+                } finally {
+                    running.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            running.set(false);
+            throw e;
+        }
+        return true;
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    private List<RetentionReport> applyPolicies() {
+        List<RetentionReport> reports = new ArrayList<>();
+        for (Map.Entry<String, TablePolicy> entry : properties.getTables().entrySet()) {
+            if (Thread.currentThread().isInterrupted()) {
+                break;
+            }
+            reports.add(applyPolicy(entry.getKey(), entry.getValue()));
+        }
+        lastReports = List.copyOf(reports);
+        return lastReports;
+    }
+
+    public List<RetentionReport> getLastReports() {
+        return lastReports;
+    }
+
+    private RetentionReport applyPolicy(String table, TablePolicy policy) {
+        RetentionReport report = new RetentionReport();
+        report.setTable(table);
+        report.setStartedAt(LocalDateTime.now());
+        report.setCutoff(LocalDate.now().minusDays(policy.getRetentionDays()));
+        long start = System.nanoTime();
+
+        try {
+            requireIdentifier(table);
+            requireIdentifier(policy.getDateColumn());
+
+            if (policy.isPartitioned() && supportsPartitioning()) {
+                if (!isRangePartitioned(table) && policy.isConvertUnpartitioned()) {
+                    convertToMonthlyPartitions(table, policy, report);
+                }
+                if (isRangePartitioned(table)) {
+                    report.setMode("partition-drop");
+                    dropExpiredPartitions(table, report);
+                    ensureFuturePartitions(table, policy, report);
+                } else {
+                    chunkedDelete(table, policy, report);
+                }
+            } else {
+                chunkedDelete(table, policy, report);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Retention run for {} interrupted", table);
+            report.setError("Interrupted");
+        } catch (Exception e) {
+            log.error("Retention run for {} failed: {}", table, e.getMessage());
+            report.setError(e.getMessage());
+        }
+
+        report.setDurationMillis((System.nanoTime() - start) / 1_000_000);
+        log.info("Retention for {} ({}): reclaimed {} rows, dropped partitions {}, in {} ms",
+            table, report.getMode(), report.getRowsReclaimed(), report.getPartitionsDropped(),
+            report.getDurationMillis());
+        return report;
+    }
+
+    private void chunkedDelete(String table, TablePolicy policy, RetentionReport report) throws InterruptedException {
+        report.setMode("chunked-delete");
+        if (!HISTORICAL_PRICES.equals(table)) {
+            throw new IllegalStateException("No chunked delete strategy for table " + table
+                + "; partition it by month or remove its retention policy");
+        }
+
+        LocalDate cutoff = report.getCutoff();
+        int chunkSize = Math.max(1, policy.getChunkSize());
+        for (String symbol : historicalPriceRepository.findSymbolsWithDataBefore(cutoff)) {
+            while (true) {
+                Integer deleted = transactionTemplate.execute(status -> {
+                    List<Long> ids = historicalPriceRepository
+                        .findIdsBySymbolAndDateBefore(symbol, cutoff, PageRequest.of(0, chunkSize));
+                    if (!ids.isEmpty()) {
+                        historicalPriceRepository.deleteAllByIdInBatch(ids);
+                    }
+                    return ids.size();
+                });
+                if (deleted == null || deleted == 0) {
+                    break;
+                }
+                report.setRowsReclaimed(report.getRowsReclaimed() + deleted);
+                if (policy.getThrottleMillis() > 0) {
+                    Thread.sleep(policy.getThrottleMillis());
+                }
+                if (deleted < chunkSize) {
+                    break;
+                }
+            }
+        }
+    }
+
+    private void dropExpiredPartitions(String table, RetentionReport report) {
+        // A monthly partition only holds expired rows once the whole month lies before the cutoff
+        YearMonth firstRetainedMonth = YearMonth.from(report.getCutoff());
+        for (Map.Entry<YearMonth, String> partition : monthlyPartitions(table).entrySet()) {
+            if (!partition.getKey().isBefore(firstRetainedMonth)) {
+                break;
+            }
+            String name = partition.getValue();
+            Long rows = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM " + table + " PARTITION (" + name + ")", Long.class);
+            jdbcTemplate.execute("ALTER TABLE " + table + " DROP PARTITION " + name);
+            report.getPartitionsDropped().add(name);
+            report.setRowsReclaimed(report.getRowsReclaimed() + (rows != null ? rows : 0));
+        }
+    }
+
+    private void ensureFuturePartitions(String table, TablePolicy policy, RetentionReport report) {
+        TreeMap<YearMonth, String> existing = monthlyPartitions(table);
+        YearMonth last = existing.isEmpty() ? YearMonth.now().minusMonths(1) : existing.lastKey();
+        YearMonth target = YearMonth.now().plusMonths(Math.max(0, policy.getPartitionsAhead()));
+        if (!last.isBefore(target)) {
+            return;
+        }
+
+        List<String> definitions = new ArrayList<>();
+        for (YearMonth month = last.plusMonths(1); !month.isAfter(target); month = month.plusMonths(1)) {
+            definitions.add(partitionDefinition(month));
+            report.getPartitionsCreated().add(month.format(PARTITION_NAME));
+        }
+
+        if (hasMaxPartition(table)) {
+            definitions.add("PARTITION " + MAX_PARTITION + " VALUES LESS THAN (MAXVALUE)");
+            jdbcTemplate.execute("ALTER TABLE " + table + " REORGANIZE PARTITION " + MAX_PARTITION
+                + " INTO (" + String.join(", ", definitions) + ")");
+        } else {
+            jdbcTemplate.execute("ALTER TABLE " + table + " ADD PARTITION (" + String.join(", ", definitions) + ")");
+        }
+    }
+
+    private void convertToMonthlyPartitions(String table, TablePolicy policy, RetentionReport report) {
+        String column = policy.getDateColumn();
+        LocalDate oldest = jdbcTemplate.queryForObject("SELECT MIN(" + column + ") FROM " + table, LocalDate.class);
+        YearMonth first = oldest != null ? YearMonth.from(oldest) : YearMonth.now();
+        YearMonth target = YearMonth.now().plusMonths(Math.max(0, policy.getPartitionsAhead()));
+
+        List<String> definitions = new ArrayList<>();
+        for (YearMonth month = first; !month.isAfter(target); month = month.plusMonths(1)) {
+            definitions.add(partitionDefinition(month));
+            report.getPartitionsCreated().add(month.format(PARTITION_NAME));
+        }
+        definitions.add("PARTITION " + MAX_PARTITION + " VALUES LESS THAN (MAXVALUE)");
+
+        // MySQL requires the partitioning column in every unique key, including the primary key
+        log.info("Converting {} to monthly range partitions on {} ({} partitions)", table, column, definitions.size());
+        jdbcTemplate.execute("ALTER TABLE " + table + " DROP PRIMARY KEY, ADD PRIMARY KEY (id, " + column + ")");
+        jdbcTemplate.execute("ALTER TABLE " + table + " PARTITION BY RANGE COLUMNS(" + column + ") ("
+            + String.join(", ", definitions) + ")");
+    }
+
+    private String partitionDefinition(YearMonth month) {
+        return "PARTITION " + month.format(PARTITION_NAME)
+            + " VALUES LESS THAN ('" + month.plusMonths(1).atDay(1) + "')";
+    }
+
+    private TreeMap<YearMonth, String> monthlyPartitions(String table) {
+        TreeMap<YearMonth, String> partitions = new TreeMap<>();
+        for (String name : partitionNames(table)) {
+            Matcher matcher = MONTHLY_PARTITION.matcher(name);
+            if (matcher.matches()) {
+                partitions.put(YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))), name);
+            }
+        }
+        return partitions;
+    }
+
+    private boolean hasMaxPartition(String table) {
+        return partitionNames(table).contains(MAX_PARTITION);
+    }
+
+    private boolean isRangePartitioned(String table) {
+        Integer count = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM information_schema.PARTITIONS WHERE TABLE_SCHEMA = DATABASE() "
+                + "AND TABLE_NAME = ? AND PARTITION_METHOD LIKE 'RANGE%'",
+            Integer.class, table);
+        return count != null && count > 0;
+    }
+
+    private List<String> partitionNames(String table) {
+        return jdbcTemplate.queryForList(
+            "SELECT PARTITION_NAME FROM information_schema.PARTITIONS WHERE TABLE_SCHEMA = DATABASE() "
+                + "AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL ORDER BY PARTITION_ORDINAL_POSITION",
+            String.class, table);
+    }
+
+    private boolean supportsPartitioning() {
+        String product = jdbcTemplate.execute(
+            (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        return product != null
+            && (product.toLowerCase().contains("mysql") || product.toLowerCase().contains("mariadb"));
+    }
+
+    private void requireIdentifier(String name) {
+        if (name == null || !IDENTIFIER.matcher(name).matches()) {
+            throw new IllegalArgumentException("Invalid table or column name: " + name);
+        }
+    }
+
+    @PreDestroy
+    public void cleanup() throws InterruptedException {
+        runExecutor.shutdownNow();
+        runExecutor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,86 @@
+package com.StockGrowth.StockGrowth.service;
+
+/**
+ * The uptrend and unusual-volume rules on primitive arrays, shared by the live analysis and the backtest.
+ * Price windows are given as [from, to) over a chronologically ordered (oldest to newest) array.
+ */
+public final class SignalRules {
+
+    // Calendar days of history one analysis looks at (latest day included)
+    public static final int WINDOW_DAYS = 30;
+    public static final int MIN_UPTREND_PRICES = 10;
+    private static final int SLOPE_POINTS = 5;
+
+    private SignalRules() {
+    }
+
+    public static boolean isUnusualVolume(long currentVolume, double averageVolume) {
+        if (averageVolume <= 0) {
+            return false;
+        }
+        return currentVolume > (averageVolume * 2.0); // Volume is more than 2x average
+    }
+
+    public static boolean isUptrending(double[] prices, int from, int to) {
+        if (to - from < MIN_UPTREND_PRICES) { // Need at least 10 days of data
+            return false;
+        }
+
+        // Criteria for uptrend:
+        // 1. Current price > 5-day MA
+        // 2. 5-day MA > 10-day MA (shorter MA above longer MA indicates uptrend)
+        // 3. Current price > price from 5 days ago (higher highs)
+        // 4. Both MAs are sloping upward
+        double currentPrice = prices[to - 1];
+        double fiveDaysAgoPrice = prices[to - 6];
+        double ma5 = movingAverage(prices, to, 5);
+        double ma10 = movingAverage(prices, to, 10);
+
+        int criteriaCount = 0;
+        if (currentPrice > ma5) criteriaCount++;
+        if (ma5 > ma10) criteriaCount++;
+        if (currentPrice > fiveDaysAgoPrice) criteriaCount++;
+        if (isMovingAverageSlopingUpward(prices, from, to, 5)) criteriaCount++;
+        if (isMovingAverageSlopingUpward(prices, from, to, 10)) criteriaCount++;
+
+        // Stock is considered uptrending if it meets the majority of criteria (at least 3 out of 5)
+        return criteriaCount >= 3;
+    }
+
+    /**
+     * Average of the {@code period} prices ending just before index {@code end}.
+     */
+    private static double movingAverage(double[] prices, int end, int period) {
+        double sum = 0;
+        for (int j = end - period; j < end; j++) {
+            sum += prices[j];
+        }
+        return sum / period;
+    }
+
+    /**
+     * Least-squares slope of the last (up to) 5 moving averages in the window is positive.
+     */
+    private static boolean isMovingAverageSlopingUpward(double[] prices, int from, int to, int period) {
+        int points = Math.min(SLOPE_POINTS, to - from - period + 1);
+        if (points < 2) {
+            return false;
+        }
+
+        double sumX = 0;
+        double sumY = 0;
+        double sumXY = 0;
+        double sumXX = 0;
+        for (int i = 0; i < points; i++) {
+            double x = i;
+            double y = movingAverage(prices, to - (points - 1 - i), period);
+            sumX += x;
+            sumY += y;
+            sumXY += x * y;
+            sumXX += x * x;
+        }
+
+        double slope = (points * sumXY - sumX * sumY) / (points * sumXX - sumX * sumX);
+        return slope > 0;
+    }
+}
@@ -0,0 +1,325 @@
+package com.StockGrowth.StockGrowth.service;
+
+import com.StockGrowth.StockGrowth.dto.PriceSeries;
+import com.StockGrowth.StockGrowth.dto.StockAnalysis;
+import com.StockGrowth.StockGrowth.event.StockDataChangedEvent;
+import com.StockGrowth.StockGrowth.repository.HistoricalPriceRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Warm start: writes the current analysis and price series to a compact gzip'd binary file at shutdown
+ * and restores them before the web server starts accepting requests, so the first /analyze call after
+ * a restart is served from memory instead of a cold Hibernate plus full-universe recomputation.
+ * The snapshot records which database state it was computed from (row count and latest last_updated);
+ * if the database has moved on by the time the application is ready, everything is recomputed. Nothing is
+ * written while the analysis or the price series are still being rebuilt after a data change, since they
+ * would not match that state.
+ */
+@Service
+@Log4j2
+public class SnapshotService {
+
+    private static final int MAGIC = 0x53475331; // "SGS1"
+    private static final int FORMAT_VERSION = 2;
+
+    private final AnalysisStreamService analysisStreamService;
+    private final PriceSeriesCache priceSeriesCache;
+    private final HistoricalPriceRepository historicalPriceRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final Path path;
+    private final Duration maxAge;
+
+    private volatile boolean restored;
+    private volatile DataMarker restoredMarker;
+    private volatile DataMarker marker; // database state the in-memory data was computed from
+
+    @Autowired
+    public SnapshotService(AnalysisStreamService analysisStreamService,
+                           PriceSeriesCache priceSeriesCache,
+                           HistoricalPriceRepository historicalPriceRepository,
+                           ApplicationEventPublisher eventPublisher,
+                           @Value("${stockgrowth.snapshot.enabled:false}") boolean enabled,
+                           @Value("${stockgrowth.snapshot.path:data/stockgrowth-snapshot.bin.gz}") String path,
+                           @Value("${stockgrowth.snapshot.max-age:PT24H}") Duration maxAge) {
+        this.analysisStreamService = analysisStreamService;
+        this.priceSeriesCache = priceSeriesCache;
+        this.historicalPriceRepository = historicalPriceRepository;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.path = Paths.get(path);
+        this.maxAge = maxAge;
+    }
+
+    public boolean isRestored() {
+        return restored;
+    }
+
+    @PostConstruct
+    public void restore() {
+        if (!enabled || !Files.isRegularFile(path)) {
+            return;
+        }
+        long start = System.nanoTime();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(path), 1 << 16)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                log.warn("Ignoring snapshot {}: unknown format", path);
+                return;
+            }
+            Instant writtenAt = Instant.ofEpochMilli(in.readLong());
+            if (writtenAt.plus(maxAge).isBefore(Instant.now())) {
+                log.info("Ignoring snapshot {} written at {}: older than {}", path, writtenAt, maxAge);
+                return;
+            }
+            long analysisVersion = in.readLong();
+            long rowCount = in.readLong();
+            String lastUpdated = readString(in);
+            List<StockAnalysis> analyses = readAnalyses(in);
+            Map<String, PriceSeries> series = readSeries(in);
+
+            analysisStreamService.restore(analyses, analysisVersion);
+            if (!series.isEmpty()) {
+                priceSeriesCache.restore(series); // otherwise they were never loaded and load on first use
+            }
+            restored = true;
+            restoredMarker = new DataMarker(rowCount, lastUpdated != null ? LocalDateTime.parse(lastUpdated) : null);
+            log.info("Restored snapshot from {}: {} analyses, {} price series in {} ms",
+                writtenAt, analyses.size(), series.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not restore snapshot {}: {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * Reports time to ready, then checks a restored snapshot against the database; if another instance
+     * refreshed the data in the meantime (a refresh restamps every row, even when the row count stays the
+     * same), everything is recomputed in the background.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        log.info("Ready to serve {} analyses {} ms after JVM start ({} start)",
+            restored ? "restored" : "on-demand", ManagementFactory.getRuntimeMXBean().getUptime(),
+            restored ? "warm" : "cold");
+        if (!enabled) {
+            return;
+        }
+        DataMarker current = currentMarker();
+        if (restored && !current.equals(restoredMarker)) {
+            log.info("Snapshot was taken at {} but the database is at {}, recomputing", restoredMarker, current);
+            eventPublisher.publishEvent(
+                new StockDataChangedEvent(this, StockDataChangedEvent.Reason.HISTORICAL_DATA_REFRESHED));
+            return;
+        }
+        marker = current;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockDataChanged(StockDataChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            marker = currentMarker();
+        } catch (RuntimeException e) {
+            log.warn("Could not read the database state for the snapshot: {}", e.getMessage());
+            marker = null;
+        }
+    }
+
+    @PreDestroy
+    public void write() {
+        if (!enabled) {
+            return;
+        }
+        List<StockAnalysis> analyses = analysisStreamService.peekCurrentAnalyses();
+        Map<String, PriceSeries> series = priceSeriesCache.peek();
+        if (analyses == null) {
+            return;
+        }
+        // The marker follows the latest data change at once, the in-memory data only after its rebuild
+        if (!analysisStreamService.isCurrent() || (series != null && !priceSeriesCache.isCurrent())) {
+            log.info("Not writing snapshot {}: analysis or price series still being rebuilt after a data change",
+                path);
+            return;
+        }
+        if (series == null) {
+            series = Map.of();
+        }
+
+        long start = System.nanoTime();
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Path temp = Files.createTempFile(parent, "snapshot", ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    new GZIPOutputStream(Files.newOutputStream(temp), 1 << 16)))) {
+                DataMarker written = marker != null ? marker : currentMarker();
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeLong(System.currentTimeMillis());
+                out.writeLong(analysisStreamService.getVersion());
+                out.writeLong(written.rowCount());
+                writeString(out, written.lastUpdated() != null ? written.lastUpdated().toString() : null);
+                writeAnalyses(out, analyses);
+                writeSeries(out, series);
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("Wrote snapshot {} ({} analyses, {} price series) in {} ms",
+                path, analyses.size(), series.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            log.error("Could not write snapshot {}: {}", path, e.getMessage());
+        }
+    }
+
+    private DataMarker currentMarker() {
+        return new DataMarker(historicalPriceRepository.count(), historicalPriceRepository.findLatestUpdate());
+    }
+
+    private void writeAnalyses(DataOutputStream out, List<StockAnalysis> analyses) throws IOException {
+        out.writeInt(analyses.size());
+        for (StockAnalysis a : analyses) {
+            writeString(out, a.getTicker());
+            writeString(out, a.getCompanyName());
+            writeDouble(out, a.getMarketCap());
+            writeLong(out, a.getVolume());
+            writeDouble(out, a.getPriceChange1d());
+            writeDouble(out, a.getPriceChange5d());
+            writeDouble(out, a.getPriceChange30d());
+            writeBoolean(out, a.getIsUptrending());
+            writeBoolean(out, a.getHasUnusualVolume());
+            writeDouble(out, a.getAverageVolume());
+        }
+    }
+
+    private List<StockAnalysis> readAnalyses(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        List<StockAnalysis> analyses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            analyses.add(new StockAnalysis(readString(in), readString(in), readDouble(in), readLong(in),
+                readDouble(in), readDouble(in), readDouble(in), readBoolean(in), readBoolean(in), readDouble(in)));
+        }
+        return analyses;
+    }
+
+    private void writeSeries(DataOutputStream out, Map<String, PriceSeries> series) throws IOException {
+        out.writeInt(series.size());
+        for (PriceSeries s : series.values()) {
+            out.writeUTF(s.getSymbol());
+            out.writeInt(s.size());
+            // Dates are stored as deltas, which are mostly 1-3 days and compress well
+            int previous = 0;
+            for (int day : s.getEpochDays()) {
+                out.writeInt(day - previous);
+                previous = day;
+            }
+            for (double price : s.getPrices()) {
+                out.writeDouble(price);
+            }
+            for (long volume : s.getVolumes()) {
+                out.writeLong(volume);
+            }
+        }
+    }
+
+    private Map<String, PriceSeries> readSeries(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        Map<String, PriceSeries> series = new HashMap<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            String symbol = in.readUTF();
+            int size = in.readInt();
+            int[] days = new int[size];
+            double[] prices = new double[size];
+            long[] volumes = new long[size];
+            int previous = 0;
+            for (int j = 0; j < size; j++) {
+                previous += in.readInt();
+                days[j] = previous;
+            }
+            for (int j = 0; j < size; j++) {
+                prices[j] = in.readDouble();
+            }
+            for (int j = 0; j < size; j++) {
+                volumes[j] = in.readLong();
+            }
+            series.put(symbol, new PriceSeries(symbol, days, prices, volumes));
+        }
+        return series;
+    }
+
+    private void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private void writeDouble(DataOutputStream out, Double value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeDouble(value);
+        }
+    }
+
+    private Double readDouble(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readDouble() : null;
+    }
+
+    private void writeLong(DataOutputStream out, Long value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+
+    private Long readLong(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readLong() : null;
+    }
+
+    private void writeBoolean(DataOutputStream out, Boolean value) throws IOException {
+        out.writeByte(value == null ? -1 : (value ? 1 : 0));
+    }
+
+    private Boolean readBoolean(DataInputStream in) throws IOException {
+        byte value = in.readByte();
+        return value < 0 ? null : value == 1;
+    }
+
+    private record DataMarker(long rowCount, LocalDateTime lastUpdated) {
+    }
+}
@@ -3,13 +3,16 @@ package com.StockGrowth.StockGrowth.service;
 import com.StockGrowth.StockGrowth.dto.HistoricalPriceDTO;
 import com.StockGrowth.StockGrowth.dto.HistoricalPriceResponse;
 import com.StockGrowth.StockGrowth.dto.StockAnalysis;
+import com.StockGrowth.StockGrowth.event.StockDataChangedEvent;
 import com.StockGrowth.StockGrowth.model.HistoricalPrice;
 import com.StockGrowth.StockGrowth.model.Stock;
 import com.StockGrowth.StockGrowth.repository.HistoricalPriceRepository;
 import com.StockGrowth.StockGrowth.repository.StockRepository;
-import jakarta.annotation.PreDestroy;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
@@ -21,11 +24,12 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.Semaphore;
 import java.util.stream.Collectors;
 
 @Service
@@ -33,27 +37,49 @@ import java.util.stream.Collectors;
 @Log4j2
 public class StockService {
 
-    private static final String BASE_URL = "https://financialmodelingprep.com/api/v3";
-    private static final String API_KEY = "25HLtnCgiRCFX9fcryDyWJzOxPEeXfKx";
+    private final String baseUrl;
+    private final String apiKey;
     private final RestTemplate restTemplate;
     private final StockRepository stockRepository;
     private final HistoricalPriceRepository historicalPriceRepository;
+    private final ApplicationEventPublisher eventPublisher;
     private final ExecutorService executorService;
+    private final Semaphore fetchPermits;
+    private final int batchSize;
+    private final long batchDelayMillis;
+    private final int historyDays;
     private final DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
     @Autowired
     public StockService(RestTemplate restTemplate, 
                        StockRepository stockRepository,
-                       HistoricalPriceRepository historicalPriceRepository) {
+                       HistoricalPriceRepository historicalPriceRepository,
+                       ApplicationEventPublisher eventPublisher,
+                       @Qualifier("fetchExecutor") ExecutorService executorService,
+                       @Value("${stockgrowth.fetch.max-concurrency:10}") int maxConcurrentFetches,
+                       @Value("${stockgrowth.refresh.batch-size:2}") int batchSize,
+                       @Value("${stockgrowth.refresh.batch-delay-millis:100}") long batchDelayMillis,
+                       @Value("${stockgrowth.refresh.history-days:30}") int historyDays,
+                       @Value("${stockgrowth.api.base-url:https://financialmodelingprep.com/api/v3}") String baseUrl,
+                       @Value("${stockgrowth.api.key:}") String apiKey) {
+        this.baseUrl = baseUrl;
+        this.apiKey = apiKey;
         this.restTemplate = restTemplate;
         this.stockRepository = stockRepository;
         this.historicalPriceRepository = historicalPriceRepository;
-        this.executorService = Executors.newFixedThreadPool(10); // Use 10 threads
+        this.eventPublisher = eventPublisher;
+        this.executorService = executorService;
+        // Bounds upstream concurrency independently of the executor (virtual threads have no pool size)
+        this.fetchPermits = new Semaphore(maxConcurrentFetches);
+        this.batchSize = Math.max(1, batchSize);
+        this.batchDelayMillis = batchDelayMillis;
+        this.historyDays = historyDays;
     }
 
     @Transactional
     public List<Stock> fetchAndSaveStocksUnder100M() {
-        String url = BASE_URL + "/stock-screener?marketCapLowerThan=100000000&apikey=" + API_KEY;
+        requireApiKey();
+        String url = baseUrl + "/stock-screener?marketCapLowerThan=100000000&apikey=" + apiKey;
         
         ResponseEntity<List<Stock>> response = restTemplate.exchange(
             url,
@@ -68,7 +94,10 @@ public class StockService {
                 .filter(stock -> "US".equals(stock.getCountry()))
                 .toList();
             
-            return stockRepository.saveAll(usStocks);
+            List<Stock> saved = stockRepository.saveAll(usStocks);
+            eventPublisher.publishEvent(
+                new StockDataChangedEvent(this, StockDataChangedEvent.Reason.UNIVERSE_UPDATED));
+            return saved;
         }
         
         return List.of();
@@ -76,6 +105,8 @@ public class StockService {
 
     @Transactional
     public void refreshHistoricalData() {
+        // Checked before the delete below, so a missing key cannot wipe the table and then fail every fetch
+        requireApiKey();
         try {
             // First delete all existing historical data
             System.out.println("Deleting all existing historical data...");
@@ -86,20 +117,22 @@ public class StockService {
             // Get all stocks
             List<Stock> stocks = stockRepository.findAll();
             LocalDate today = LocalDate.now();
-            LocalDate thirtyDaysAgo = today.minusDays(30);
+            LocalDate fromDate = today.minusDays(historyDays);
 
-            // Create smaller batches (2 stocks per batch for less contention)
+            // Create smaller batches (2 stocks per batch by default for less contention)
             List<List<Stock>> batches = new ArrayList<>();
-            for (int i = 0; i < stocks.size(); i += 2) {
-                batches.add(stocks.subList(i, Math.min(i + 2, stocks.size())));
+            for (int i = 0; i < stocks.size(); i += batchSize) {
+                batches.add(stocks.subList(i, Math.min(i + batchSize, stocks.size())));
             }
 
             // Process batches sequentially to avoid lock contention
             for (List<Stock> batch : batches) {
                 try {
-                    processBatch(batch, today, thirtyDaysAgo);
+                    processBatch(batch, today, fromDate);
                     // Add a small delay between batches to reduce database contention
-                    Thread.sleep(100);
+                    if (batchDelayMillis > 0) {
+                        Thread.sleep(batchDelayMillis);
+                    }
                 } catch (Exception e) {
                     System.err.println("Error processing batch with symbols: " + 
                         batch.stream().map(Stock::getSymbol).collect(Collectors.joining(", ")) +
@@ -108,6 +141,8 @@ public class StockService {
             }
 
             System.out.println("Completed refreshing historical data");
+            eventPublisher.publishEvent(
+                new StockDataChangedEvent(this, StockDataChangedEvent.Reason.HISTORICAL_DATA_REFRESHED));
 
         } catch (Exception e) {
             System.err.println("Error refreshing historical data: " + e.getMessage());
@@ -115,10 +150,10 @@ public class StockService {
     }
 
     @Transactional
-    protected void processBatch(List<Stock> batch, LocalDate today, LocalDate thirtyDaysAgo) {
+    protected void processBatch(List<Stock> batch, LocalDate today, LocalDate fromDate) {
         List<CompletableFuture<List<HistoricalPrice>>> futures = batch.stream()
             .map(stock -> CompletableFuture.supplyAsync(() -> 
-                fetchHistoricalData(stock.getSymbol(), today, thirtyDaysAgo), 
+                fetchHistoricalData(stock.getSymbol(), today, fromDate), 
                 executorService))
             .collect(Collectors.toList());
 
@@ -135,11 +170,19 @@ public class StockService {
         }
     }
 
-    private List<HistoricalPrice> fetchHistoricalData(String symbol, LocalDate today, LocalDate thirtyDaysAgo) {
+    private List<HistoricalPrice> fetchHistoricalData(String symbol, LocalDate today, LocalDate fromDate) {
+        requireApiKey();
         String url = String.format("%s/historical-price-full/%s?from=%s&to=%s&apikey=%s",
-            BASE_URL, symbol, thirtyDaysAgo.format(dateFormatter), today.format(dateFormatter), API_KEY);
+            baseUrl, symbol, fromDate.format(dateFormatter), today.format(dateFormatter), apiKey);
         System.out.println("Fetching data for symbol: " + symbol);
 
+        try {
+            fetchPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new ArrayList<>();
+        }
+
         try {
             ResponseEntity<HistoricalPriceResponse> response = restTemplate.exchange(
                 url,
@@ -171,6 +214,8 @@ public class StockService {
         } catch (Exception e) {
             System.out.println("Error fetching data for " + symbol + ": " + e.getMessage());
             return new ArrayList<>();
+        } finally {
+            fetchPermits.release();
         }
     }
 
@@ -179,15 +224,23 @@ public class StockService {
         List<Stock> stocks = stockRepository.findAll();
         List<StockAnalysis> analyses = new ArrayList<>();
 
+        Map<String, LocalDate> latestDates = new HashMap<>();
+        for (Object[] row : historicalPriceRepository.findLatestDatePerSymbol()) {
+            latestDates.put((String) row[0], (LocalDate) row[1]);
+        }
+
         for (Stock stock : stocks) {
             try {
-                List<HistoricalPrice> historicalData = historicalPriceRepository
-                    .findBySymbolOrderByDateDesc(stock.getSymbol());
-
-                if (historicalData.isEmpty()) {
+                LocalDate latestDate = latestDates.get(stock.getSymbol());
+                if (latestDate == null) {
                     continue;
                 }
 
+                // Only the latest window is loaded; a longer history may be kept for backtesting
+                List<HistoricalPrice> historicalData = historicalPriceRepository
+                    .findBySymbolAndDateBetweenOrderByDateDesc(stock.getSymbol(),
+                        latestDate.minusDays(SignalRules.WINDOW_DAYS), latestDate);
+
                 StockAnalysis analysis = analyzeStockData(stock, historicalData);
                 analyses.add(analysis);
             } catch (Exception e) {
@@ -198,6 +251,14 @@ public class StockService {
         return analyses;
     }
 
+    // The key is only needed by provider calls, so analysis, export and the AOT training run work without one
+    private void requireApiKey() {
+        if (apiKey == null || apiKey.isBlank()) {
+            throw new IllegalStateException(
+                "No market data API key: set the FMP_API_KEY environment variable or stockgrowth.api.key");
+        }
+    }
+
     private StockAnalysis analyzeStockData(Stock stock, List<HistoricalPrice> historicalData) {
         StockAnalysis analysis = new StockAnalysis();
         
@@ -306,62 +367,24 @@ public class StockService {
     }
 
     private boolean isUnusualVolume(long currentVolume, double averageVolume) {
-        if (averageVolume <= 0) {
-            return false;
-        }
-        return currentVolume > (averageVolume * 2.0); // Volume is more than 2x average
+        return SignalRules.isUnusualVolume(currentVolume, averageVolume);
     }
 
     private boolean isUptrending(List<HistoricalPrice> data) {
-        if (data == null || data.size() < 10) { // Need at least 10 days of data
+        if (data == null || data.size() < SignalRules.MIN_UPTREND_PRICES) { // Need at least 10 days of data
             return false;
         }
 
         try {
             // Get valid prices in chronological order (oldest to newest)
-            List<Double> prices = data.stream()
+            double[] prices = data.stream()
                 .sorted((a, b) -> a.getDate().compareTo(b.getDate()))
                 .map(HistoricalPrice::getPrice)
                 .filter(price -> price != null && !Double.isNaN(price))
-                .collect(Collectors.toList());
-
-            if (prices.size() < 10) {
-                return false;
-            }
+                .mapToDouble(Double::doubleValue)
+                .toArray();
 
-            // Calculate 5-day and 10-day moving averages
-            List<Double> ma5 = calculateMovingAverage(prices, 5);
-            List<Double> ma10 = calculateMovingAverage(prices, 10);
-
-            if (ma5.isEmpty() || ma10.isEmpty()) {
-                return false;
-            }
-
-            // Criteria for uptrend:
-            // 1. Current price > 5-day MA
-            // 2. 5-day MA > 10-day MA (shorter MA above longer MA indicates uptrend)
-            // 3. Current price > price from 5 days ago (higher highs)
-            // 4. Both MAs are sloping upward
-            double currentPrice = prices.get(prices.size() - 1);
-            double fiveDaysAgoPrice = prices.get(prices.size() - 6);
-            
-            boolean priceAboveMa5 = currentPrice > ma5.get(ma5.size() - 1);
-            boolean ma5AboveMa10 = ma5.get(ma5.size() - 1) > ma10.get(ma10.size() - 1);
-            boolean higherHigh = currentPrice > fiveDaysAgoPrice;
-            
-            // Check if MAs are sloping upward
-            boolean ma5Sloping = isSlopingUpward(ma5.subList(Math.max(0, ma5.size() - 5), ma5.size()));
-            boolean ma10Sloping = isSlopingUpward(ma10.subList(Math.max(0, ma10.size() - 5), ma10.size()));
-
-            // Stock is considered uptrending if it meets the majority of criteria (at least 3 out of 5)
-            int criteriaCount = 0;
-            if (priceAboveMa5) criteriaCount++;
-            if (ma5AboveMa10) criteriaCount++;
-            if (higherHigh) criteriaCount++;
-            if (ma5Sloping) criteriaCount++;
-            if (ma10Sloping) criteriaCount++;
-
-            return criteriaCount >= 3;
+            return SignalRules.isUptrending(prices, 0, prices.length);
 
         } catch (Exception e) {
             log.error("Error checking uptrend for data size {}: {}", 
@@ -370,50 +393,6 @@ public class StockService {
         }
     }
 
-    private List<Double> calculateMovingAverage(List<Double> prices, int period) {
-        if (prices == null || prices.size() < period) {
-            return List.of();
-        }
-
-        List<Double> movingAverages = new ArrayList<>();
-        for (int i = 0; i <= prices.size() - period; i++) {
-            double sum = 0;
-            for (int j = i; j < i + period; j++) {
-                sum += prices.get(j);
-            }
-            movingAverages.add(sum / period);
-        }
-        return movingAverages;
-    }
-
-    private boolean isSlopingUpward(List<Double> values) {
-        if (values == null || values.size() < 2) {
-            return false;
-        }
-
-        // Calculate linear regression slope
-        int n = values.size();
-        double sumX = 0;
-        double sumY = 0;
-        double sumXY = 0;
-        double sumXX = 0;
-
-        for (int i = 0; i < n; i++) {
-            double x = i;
-            double y = values.get(i);
-            sumX += x;
-            sumY += y;
-            sumXY += x * y;
-            sumXX += x * x;
-        }
-
-        // Calculate slope using least squares method
-        double slope = (n * sumXY - sumX * sumY) / (n * sumXX - sumX * sumX);
-        
-        // Consider it upward sloping if slope is positive
-        return slope > 0;
-    }
-
     public List<Stock> getAllStocks() {
         return stockRepository.findAll();
     }
@@ -427,16 +406,4 @@ public class StockService {
     public long getHistoricalDataCount() {
         return historicalPriceRepository.count();
     }
-
-    @PreDestroy
-    public void cleanup() {
-        executorService.shutdown();
-        try {
-            if (!executorService.awaitTermination(60, TimeUnit.SECONDS)) {
-                executorService.shutdownNow();
-            }
-        } catch (InterruptedException e) {
-            executorService.shutdownNow();
-        }
-    }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,49 @@
+package com.StockGrowth.StockGrowth.benchmark;
+
+import com.StockGrowth.StockGrowth.dto.BacktestRequest;
+import com.StockGrowth.StockGrowth.dto.BacktestResult;
+import com.StockGrowth.StockGrowth.dto.PriceSeries;
+import com.StockGrowth.StockGrowth.service.BacktestEngine;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Runs the backtest engine over a {@link SyntheticUniverse}.
+ * Run with
+ * {@code ./mvnw test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.StockGrowth.StockGrowth.benchmark.BacktestBenchmark}
+ * and size it with -Dbench.symbols (default 3000) and -Dbench.years (default 5).
+ */
+public class BacktestBenchmark {
+
+    private static final int SYMBOLS = Integer.getInteger("bench.symbols", 3000);
+    private static final int YEARS = Integer.getInteger("bench.years", 5);
+    private static final int RUNS = Integer.getInteger("bench.runs", 5);
+
+    public static void main(String[] args) {
+        PriceSeries[] universe = SyntheticUniverse.generate(SYMBOLS, YEARS);
+        long rows = 0;
+        for (PriceSeries series : universe) {
+            rows += series.size();
+        }
+        System.out.printf("%,d symbols x %d years = %,d daily bars, %d cores%n",
+            SYMBOLS, YEARS, rows, Runtime.getRuntime().availableProcessors());
+
+        BacktestEngine parallel = new BacktestEngine(ForkJoinPool.commonPool());
+        BacktestEngine sequential = new BacktestEngine(new ForkJoinPool(1));
+        BacktestRequest request = new BacktestRequest();
+
+        BacktestResult result = null;
+        for (int run = 1; run <= RUNS; run++) {
+            result = parallel.run(universe, request);
+            System.out.printf("parallel run %d: %,d ms%n", run, result.getDurationMillis());
+        }
+        System.out.printf("sequential:     %,d ms%n", sequential.run(universe, request).getDurationMillis());
+
+        for (BacktestResult.SignalStats stats : result.getStats()) {
+            System.out.printf("%-26s h=%-3d n=%,10d hit %5.1f%%  mean %+6.3f%%  excess %+6.3f%%%n",
+                stats.getSignal(), stats.getHorizon(), stats.getCount(), stats.getHitRate() * 100,
+                stats.getMeanReturn(), stats.getExcessReturn());
+        }
+    }
+}
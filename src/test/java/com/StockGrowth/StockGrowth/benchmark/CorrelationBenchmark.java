@@ -0,0 +1,48 @@
+package com.StockGrowth.StockGrowth.benchmark;
+
+import com.StockGrowth.StockGrowth.dto.CorrelatedStock;
+import com.StockGrowth.StockGrowth.dto.PriceSeries;
+import com.StockGrowth.StockGrowth.service.CorrelationService;
+import com.StockGrowth.StockGrowth.service.DotProductKernel;
+import com.StockGrowth.StockGrowth.service.PriceSeriesCache;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Times the full correlation matrix over a {@link SyntheticUniverse} (same-sector symbols are correlated).
+ * Run with
+ * {@code ./mvnw test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.StockGrowth.StockGrowth.benchmark.CorrelationBenchmark};
+ * set {@code MAVEN_OPTS="--add-modules jdk.incubator.vector"} to use the Vector API kernel.
+ * Size with -Dbench.symbols (default 3000) and the lookback with -Dbench.lookbackDays (default 60).
+ */
+public class CorrelationBenchmark {
+
+    private static final int SYMBOLS = Integer.getInteger("bench.symbols", 3000);
+    private static final int LOOKBACK_DAYS = Integer.getInteger("bench.lookbackDays", 60);
+    private static final int RUNS = Integer.getInteger("bench.runs", 5);
+
+    public static void main(String[] args) {
+        Map<String, PriceSeries> universe = new HashMap<>();
+        for (PriceSeries series : SyntheticUniverse.generate(SYMBOLS, 1)) {
+            universe.put(series.getSymbol(), series);
+        }
+        PriceSeriesCache cache = new PriceSeriesCache(null, event -> { });
+        cache.restore(universe);
+
+        System.out.printf("%,d symbols, %d-day lookback, kernel %s, %d cores%n", SYMBOLS, LOOKBACK_DAYS,
+            DotProductKernel.best().name(), Runtime.getRuntime().availableProcessors());
+
+        List<CorrelatedStock> top = null;
+        for (int run = 1; run <= RUNS; run++) {
+            CorrelationService service = new CorrelationService(cache, LOOKBACK_DAYS, 0.8, 64, 0);
+            long start = System.nanoTime();
+            top = service.getTopCorrelated("SYM0", 5);
+            System.out.printf("run %d: matrix + top-5 in %,d ms%n", run, (System.nanoTime() - start) / 1_000_000);
+            service.cleanup();
+        }
+        System.out.println("most correlated to SYM0: " + top);
+    }
+}
@@ -0,0 +1,88 @@
+package com.StockGrowth.StockGrowth.benchmark;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures time to first useful response: starts the application as a separate process, polls
+ * /api/stocks/analyze until it returns 200, then stops it gracefully (which writes the warm-start
+ * snapshot when stockgrowth.snapshot.enabled=true). The first run is usually cold; later runs show
+ * the effect of the snapshot, and of CDS/AOT when started from the cds profile's output.
+ * <p>
+ * Run with
+ * {@code ./mvnw -DskipTests package test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.StockGrowth.StockGrowth.benchmark.StartupBenchmark}
+ * and override the launched command with -Dbench.command="java ... -jar ...", the working directory
+ * with -Dbench.dir, the polled URL with -Dbench.url and the number of runs with -Dbench.runs.
+ */
+public class StartupBenchmark {
+
+    private static final String COMMAND = System.getProperty("bench.command",
+        "java -Dstockgrowth.snapshot.enabled=true -jar target/StockGrowth-0.0.1-SNAPSHOT.jar");
+    private static final String DIRECTORY = System.getProperty("bench.dir", ".");
+    private static final String URL = System.getProperty("bench.url", "http://localhost:8080/api/stocks/analyze");
+    private static final int RUNS = Integer.getInteger("bench.runs", 3);
+    private static final Duration TIMEOUT = Duration.ofSeconds(Integer.getInteger("bench.timeoutSeconds", 120));
+
+    public static void main(String[] args) throws Exception {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(URL)).timeout(TIMEOUT).GET().build();
+        List<Long> results = new ArrayList<>();
+
+        System.out.printf("Command: %s%nPolling: %s%n", COMMAND, URL);
+        for (int run = 1; run <= RUNS; run++) {
+            Process process = new ProcessBuilder(COMMAND.split("\\s+"))
+                .directory(new File(DIRECTORY))
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+            long start = System.nanoTime();
+            long deadline = start + TIMEOUT.toNanos();
+            long firstResponseMillis = -1;
+            int bytes = 0;
+            try {
+                while (System.nanoTime() < deadline && process.isAlive()) {
+                    try {
+                        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                        if (response.statusCode() == 200) {
+                            firstResponseMillis = (System.nanoTime() - start) / 1_000_000;
+                            bytes = response.body().length;
+                            break;
+                        }
+                    } catch (java.io.IOException e) {
+                        // Not listening yet
+                    }
+                    Thread.sleep(50);
+                }
+            } finally {
+                // SIGTERM lets the shutdown hooks (and the snapshot writer) run
+                process.destroy();
+                if (!process.waitFor(60, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                }
+            }
+
+            if (firstResponseMillis < 0) {
+                System.out.printf("run %d: no successful response within %d s%n", run, TIMEOUT.toSeconds());
+            } else {
+                results.add(firstResponseMillis);
+                System.out.printf("run %d: first useful response after %,d ms (%,d bytes)%n", run, firstResponseMillis, bytes);
+            }
+        }
+
+        if (!results.isEmpty()) {
+            long[] sorted = results.stream().mapToLong(Long::longValue).sorted().toArray();
+            System.out.printf("first run %,d ms, best %,d ms, median %,d ms%n",
+                results.get(0), sorted[0], sorted[sorted.length / 2]);
+            System.out.println("all runs: " + Arrays.toString(results.toArray()));
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.StockGrowth.StockGrowth.benchmark;
+
+import com.StockGrowth.StockGrowth.dto.PriceSeries;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Random-walk price histories on weekdays for benchmarks. Symbols are spread over a few sectors whose
+ * common daily factor makes members of the same sector move together.
+ */
+final class SyntheticUniverse {
+
+    private static final int SECTORS = 20;
+
+    private SyntheticUniverse() {
+    }
+
+    static PriceSeries[] generate(int symbols, int years) {
+        SplittableRandom random = new SplittableRandom(42);
+        LocalDate start = LocalDate.now().minusYears(years);
+        int totalDays = (int) (LocalDate.now().toEpochDay() - start.toEpochDay());
+
+        double[][] sectorMoves = new double[SECTORS][totalDays];
+        for (double[] moves : sectorMoves) {
+            for (int d = 0; d < totalDays; d++) {
+                moves[d] = random.nextDouble(-0.02, 0.02);
+            }
+        }
+
+        PriceSeries[] universe = new PriceSeries[symbols];
+        for (int s = 0; s < symbols; s++) {
+            double[] sector = sectorMoves[s % SECTORS];
+            int[] days = new int[totalDays];
+            double[] prices = new double[totalDays];
+            long[] volumes = new long[totalDays];
+            int n = 0;
+            double price = 1 + random.nextDouble() * 20;
+            for (int d = 0; d < totalDays; d++) {
+                LocalDate date = start.plusDays(d);
+                if (date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY) {
+                    continue;
+                }
+                price *= Math.exp(sector[d] + random.nextDouble(-0.04, 0.04) + 0.0002);
+                days[n] = (int) date.toEpochDay();
+                prices[n] = price;
+                volumes[n] = (long) (50_000 * Math.exp(random.nextDouble(-1.0, 1.0) * 1.2));
+                n++;
+            }
+            universe[s] = new PriceSeries("SYM" + s,
+                Arrays.copyOf(days, n), Arrays.copyOf(prices, n), Arrays.copyOf(volumes, n));
+        }
+        return universe;
+    }
+}
@@ -0,0 +1,140 @@
+package com.StockGrowth.StockGrowth.benchmark;
+
+import com.StockGrowth.StockGrowth.config.ExecutorConfig;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Compares the platform-thread pools used today with the virtual-thread mode on two simulated workloads:
+ * <ul>
+ *   <li>refresh: N symbols fetched from an upstream with fixed latency, in batches like StockService</li>
+ *   <li>endpoint: bursts of concurrent blocking requests, platform pool sized like Tomcat's default (200)</li>
+ * </ul>
+ * Run with
+ * {@code ./mvnw test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.StockGrowth.StockGrowth.benchmark.VirtualThreadBenchmark}
+ * (virtual-thread rows are only produced on Java 21+). Tune with -Dbench.symbols, -Dbench.latencyMillis,
+ * -Dbench.concurrency, -Dbench.rounds, -Dbench.requestMillis.
+ * <p>
+ * Compare the virtual row with "platform pool(50), batch 50", which has the same batch size and concurrency
+ * limit; the rows above it mostly show the effect of those two settings. Every task here is a
+ * {@code Thread.sleep}, so this only measures scheduling: JDBC calls and {@code synchronized} pinning are not
+ * exercised. For the real refresh path run {@code loadtest.LoadTestHarness} on Java 21, once as is and once with
+ * {@code -Dexec.args="--spring.profiles.active=virtual-threads"}.
+ */
+public class VirtualThreadBenchmark {
+
+    private static final int SYMBOLS = Integer.getInteger("bench.symbols", 300);
+    private static final int UPSTREAM_LATENCY_MILLIS = Integer.getInteger("bench.latencyMillis", 80);
+    private static final int BATCH_DELAY_MILLIS = Integer.getInteger("bench.batchDelayMillis", 100);
+    private static final int CONCURRENCY = Integer.getInteger("bench.concurrency", 1000);
+    private static final int ROUNDS = Integer.getInteger("bench.rounds", 10);
+    private static final int REQUEST_MILLIS = Integer.getInteger("bench.requestMillis", 20);
+
+    public static void main(String[] args) throws Exception {
+        System.out.printf("Java %d, %d symbols, upstream latency %d ms, batch delay %d ms%n",
+            Runtime.version().feature(), SYMBOLS, UPSTREAM_LATENCY_MILLIS, BATCH_DELAY_MILLIS);
+
+        System.out.println("\n== Refresh wall-clock ==");
+        refresh("platform pool(10), batch 2", () -> Executors.newFixedThreadPool(10), 2, 10);
+        refresh("platform pool(10), batch 50", () -> Executors.newFixedThreadPool(10), 50, 10);
+        refresh("platform pool(50), batch 50", () -> Executors.newFixedThreadPool(50), 50, 50);
+        refresh("virtual, batch 50, semaphore 50", ExecutorConfig::newVirtualThreadPerTaskExecutor, 50, 50);
+
+        System.out.printf("%n== Endpoint latency (%d concurrent x %d rounds, %d ms blocking per request) ==%n",
+            CONCURRENCY, ROUNDS, REQUEST_MILLIS);
+        endpoint("platform pool(200)", () -> Executors.newFixedThreadPool(200));
+        endpoint("virtual per request", ExecutorConfig::newVirtualThreadPerTaskExecutor);
+    }
+
+    private static void refresh(String label, Supplier<ExecutorService> executorFactory,
+                                int batchSize, int maxConcurrency) throws Exception {
+        ExecutorService executor = executorFactory.get();
+        if (executor == null) {
+            System.out.printf("%-34s skipped (no virtual threads on this JVM)%n", label);
+            return;
+        }
+        Semaphore permits = new Semaphore(maxConcurrency);
+        long start = System.nanoTime();
+        try {
+            for (int i = 0; i < SYMBOLS; i += batchSize) {
+                int size = Math.min(batchSize, SYMBOLS - i);
+                List<CompletableFuture<Void>> futures = new ArrayList<>(size);
+                for (int j = 0; j < size; j++) {
+                    futures.add(CompletableFuture.runAsync(() -> blockingCall(permits, UPSTREAM_LATENCY_MILLIS), executor));
+                }
+                futures.forEach(CompletableFuture::join);
+                Thread.sleep(BATCH_DELAY_MILLIS);
+            }
+        } finally {
+            shutdown(executor);
+        }
+        System.out.printf("%-34s %,8d ms%n", label, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static void endpoint(String label, Supplier<ExecutorService> executorFactory) throws Exception {
+        ExecutorService executor = executorFactory.get();
+        if (executor == null) {
+            System.out.printf("%-34s skipped (no virtual threads on this JVM)%n", label);
+            return;
+        }
+        long[] latencies = new long[CONCURRENCY * ROUNDS];
+        int index = 0;
+        long start = System.nanoTime();
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                List<CompletableFuture<Long>> futures = new ArrayList<>(CONCURRENCY);
+                for (int i = 0; i < CONCURRENCY; i++) {
+                    long submitted = System.nanoTime();
+                    futures.add(CompletableFuture.supplyAsync(() -> {
+                        blockingCall(null, REQUEST_MILLIS);
+                        return System.nanoTime() - submitted;
+                    }, executor));
+                }
+                for (CompletableFuture<Long> future : futures) {
+                    latencies[index++] = future.join();
+                }
+            }
+        } finally {
+            shutdown(executor);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        Arrays.sort(latencies);
+        System.out.printf("%-34s p50 %6.1f ms  p99 %6.1f ms  %,8.0f req/s%n", label,
+            percentile(latencies, 0.50) / 1e6, percentile(latencies, 0.99) / 1e6, latencies.length / seconds);
+    }
+
+    private static void blockingCall(Semaphore permits, long millis) {
+        try {
+            if (permits != null) {
+                permits.acquire();
+            }
+            try {
+                Thread.sleep(millis);
+            } finally {
+                if (permits != null) {
+                    permits.release();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+    }
+
+    private static void shutdown(ExecutorService executor) throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+    }
+}
@@ -0,0 +1,57 @@
+package com.StockGrowth.StockGrowth.controller;
+
+import com.StockGrowth.StockGrowth.service.BacktestService;
+import com.StockGrowth.StockGrowth.service.PriceSeriesCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class BacktestControllerTest {
+
+    private BacktestService backtestService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        backtestService = new BacktestService(mock(PriceSeriesCache.class), 1, 5);
+        mockMvc = MockMvcBuilders.standaloneSetup(new BacktestController(backtestService)).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        backtestService.cleanup();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "{\"windowDays\": -1}",
+        "{\"windowDays\": 0}",
+        "{\"horizons\": null}",
+        "{\"horizons\": []}",
+        "{\"horizons\": [5, 0]}",
+        "{\"horizons\": [5, null]}",
+        "{\"from\": \"2025-02-01\", \"to\": \"2025-01-01\"}",
+    })
+    void invalidRequestsAreRejected(String body) throws Exception {
+        mockMvc.perform(post("/api/backtests").contentType(MediaType.APPLICATION_JSON).content(body))
+            .andExpect(status().isBadRequest())
+            .andExpect(content().string(startsWith("Invalid backtest request: ")));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"{}", "{\"windowDays\": 10, \"horizons\": [1, 5]}"})
+    void validRequestsAreAccepted(String body) throws Exception {
+        mockMvc.perform(post("/api/backtests").contentType(MediaType.APPLICATION_JSON).content(body))
+            .andExpect(status().isAccepted());
+    }
+}
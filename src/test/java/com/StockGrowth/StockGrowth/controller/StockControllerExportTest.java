@@ -0,0 +1,70 @@
+package com.StockGrowth.StockGrowth.controller;
+
+import com.StockGrowth.StockGrowth.service.AnalysisStreamService;
+import com.StockGrowth.StockGrowth.service.CorrelationService;
+import com.StockGrowth.StockGrowth.service.PriceExportService;
+import com.StockGrowth.StockGrowth.service.StockService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class StockControllerExportTest {
+
+    private PriceExportService priceExportService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        priceExportService = mock(PriceExportService.class);
+        StockController controller = new StockController(mock(StockService.class),
+            mock(AnalysisStreamService.class), priceExportService, mock(CorrelationService.class));
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    void unknownFormatIsRejected() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/stocks/historical/export").param("format", "parquet"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isBadRequest())
+            .andExpect(content().string("Unknown export format: parquet (expected arrow or csv)"));
+        verifyNoInteractions(priceExportService);
+    }
+
+    @Test
+    void formatIsCaseInsensitive() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/stocks/historical/export").param("format", "CSV"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Content-Type", "application/gzip"));
+        verify(priceExportService).export(eq(PriceExportService.Format.CSV), any(), any(), any(), any());
+    }
+
+    @Test
+    void arrowIsTheDefault() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/stocks/historical/export"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Content-Type", "application/vnd.apache.arrow.stream"));
+        verify(priceExportService).export(eq(PriceExportService.Format.ARROW), any(), any(), any(), any());
+    }
+}
@@ -0,0 +1,343 @@
+package com.StockGrowth.StockGrowth.loadtest;
+
+import com.StockGrowth.StockGrowth.StockGrowthApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end load test: starts a {@link StubMarketDataServer}, boots the application against it on an
+ * embedded H2 database (MySQL mode) and a random port, loads the universe and does a cold refresh, then for
+ * {@code loadtest.durationSeconds} runs refreshes back to back while {@code loadtest.clients} clients call the
+ * /api/stocks/analyze* endpoints. Reports refresh times, per-endpoint throughput and p50/p99 latency, and the
+ * heap and GC activity of the measured phase (stub, application and clients share this JVM).
+ * <p>
+ * Run with
+ * {@code ./mvnw test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.StockGrowth.StockGrowth.loadtest.LoadTestHarness}
+ * and tune with -Dloadtest.symbols, -Dloadtest.latencyMillis, -Dloadtest.jitterMillis,
+ * -Dloadtest.maxRequestsPerSecond (stub throttling, 0 = off), -Dloadtest.clients, -Dloadtest.warmupSeconds and
+ * -Dloadtest.durationSeconds. Application properties can be overridden through program arguments, e.g.
+ * {@code -Dexec.args="--stockgrowth.refresh.batch-size=50 --stockgrowth.fetch.max-concurrency=50"}.
+ * With -Dloadtest.output=FILE each run appends one CSV row, so runs can be compared against a baseline.
+ */
+public class LoadTestHarness {
+
+    private static final int SYMBOLS = Integer.getInteger("loadtest.symbols", 500);
+    private static final int LATENCY_MILLIS = Integer.getInteger("loadtest.latencyMillis", 50);
+    private static final int JITTER_MILLIS = Integer.getInteger("loadtest.jitterMillis", 20);
+    private static final int MAX_REQUESTS_PER_SECOND = Integer.getInteger("loadtest.maxRequestsPerSecond", 0);
+    private static final int CLIENTS = Integer.getInteger("loadtest.clients", 32);
+    private static final int WARMUP_SECONDS = Integer.getInteger("loadtest.warmupSeconds", 5);
+    private static final int DURATION_SECONDS = Integer.getInteger("loadtest.durationSeconds", 30);
+    private static final String OUTPUT = System.getProperty("loadtest.output");
+    private static final String API_KEY = "load-test";
+
+    private static final String[] ENDPOINTS = {
+        "/api/stocks/analyze",
+        "/api/stocks/analyze/uptrend",
+        "/api/stocks/analyze/volume-spike",
+        "/api/stocks/analyze/gainers?period=5",
+        "/api/stocks/analyze/filter?uptrendOnly=true",
+    };
+
+    public static void main(String[] args) throws Exception {
+        // StockService and the application's logging write to stdout; keep it for the report only
+        PrintStream report = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        try (StubMarketDataServer stub = new StubMarketDataServer(
+                SYMBOLS, LATENCY_MILLIS, JITTER_MILLIS, MAX_REQUESTS_PER_SECOND, API_KEY)) {
+            // System properties rank above application.properties (MySQL, real provider) and below program arguments
+            applicationProperties(stub.getBaseUrl()).forEach(System::setProperty);
+            long bootStart = System.nanoTime();
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(StockGrowthApplication.class)
+                .run(args);
+            long bootMillis = (System.nanoTime() - bootStart) / 1_000_000;
+
+            try {
+                String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+                HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+                report.printf("Stub: %d symbols, latency %d+%d ms, throttle %s; app started in %,d ms%n",
+                    SYMBOLS, LATENCY_MILLIS, JITTER_MILLIS,
+                    MAX_REQUESTS_PER_SECOND > 0 ? MAX_REQUESTS_PER_SECOND + " req/s" : "off", bootMillis);
+
+                long universeMillis = timed(() -> send(client, "GET", baseUrl + "/api/stocks/fetch-under-100m"));
+                long coldRefreshMillis = timed(() -> send(client, "POST", baseUrl + "/api/stocks/refresh-historical-data"));
+                report.printf("Universe load %,d ms, cold refresh %,d ms (%,d upstream requests, %,d throttled)%n",
+                    universeMillis, coldRefreshMillis, stub.getRequests(), stub.getThrottled());
+
+                runClients(client, baseUrl, WARMUP_SECONDS, false);
+
+                Result result = measure(client, baseUrl, stub);
+                result.print(report);
+                if (OUTPUT != null) {
+                    result.append(Path.of(OUTPUT), coldRefreshMillis);
+                    report.println("Appended results to " + OUTPUT);
+                }
+            } finally {
+                context.close();
+            }
+        } finally {
+            System.setOut(report);
+        }
+    }
+
+    private static Map<String, String> applicationProperties(String stubUrl) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("server.port", "0");
+        properties.put("stockgrowth.api.base-url", stubUrl);
+        properties.put("stockgrowth.api.key", API_KEY);
+        properties.put("spring.datasource.url", "jdbc:h2:mem:loadtest;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        properties.put("spring.datasource.username", "sa");
+        properties.put("spring.datasource.password", "");
+        properties.put("spring.jpa.hibernate.ddl-auto", "create");
+        properties.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        properties.put("spring.jpa.show-sql", "false");
+        properties.put("spring.jpa.properties.hibernate.format_sql", "false");
+        properties.put("stockgrowth.snapshot.enabled", "false");
+        properties.put("logging.level.root", "WARN");
+        properties.put("logging.level.com.StockGrowth", "WARN");
+        properties.put("logging.level.org.springframework.security", "WARN");
+        return properties;
+    }
+
+    private static Result measure(HttpClient client, String baseUrl, StubMarketDataServer stub) throws Exception {
+        List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+            .filter(pool -> pool.getType() == MemoryType.HEAP)
+            .toList();
+        System.gc();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+        long[] gcBefore = gcTotals();
+        long upstreamBefore = stub.getRequests();
+        long throttledBefore = stub.getThrottled();
+
+        // Refreshes run back to back for the whole phase, so every request overlaps one
+        long phaseEnd = System.nanoTime() + TimeUnit.SECONDS.toNanos(DURATION_SECONDS);
+        CompletableFuture<List<Long>> refreshes = CompletableFuture.supplyAsync(() -> {
+            List<Long> durations = new ArrayList<>();
+            while (System.nanoTime() < phaseEnd) {
+                durations.add(timed(() -> send(client, "POST", baseUrl + "/api/stocks/refresh-historical-data")));
+            }
+            return durations;
+        });
+        Result result = runClients(client, baseUrl, DURATION_SECONDS, true);
+        result.refreshMillis = refreshes.get();
+
+        long[] gcAfter = gcTotals();
+        result.gcCount = gcAfter[0] - gcBefore[0];
+        result.gcMillis = gcAfter[1] - gcBefore[1];
+        result.peakHeapBytes = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+        System.gc();
+        result.liveHeapBytes = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        result.upstreamRequests = stub.getRequests() - upstreamBefore;
+        result.upstreamThrottled = stub.getThrottled() - throttledBefore;
+        return result;
+    }
+
+    private static Result runClients(HttpClient client, String baseUrl, int seconds, boolean record)
+            throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(seconds);
+        List<CompletableFuture<long[][]>> futures = new ArrayList<>();
+        for (int c = 0; c < CLIENTS; c++) {
+            int offset = c;
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                // Per endpoint: latencies in nanos (grown as needed); the last slot of each row counts errors
+                long[][] latencies = new long[ENDPOINTS.length][];
+                int[] counts = new int[ENDPOINTS.length];
+                long[] errors = new long[ENDPOINTS.length];
+                for (int e = 0; e < ENDPOINTS.length; e++) {
+                    latencies[e] = new long[1024];
+                }
+                for (int i = offset; System.nanoTime() < end; i++) {
+                    int e = i % ENDPOINTS.length;
+                    long sent = System.nanoTime();
+                    int status = send(client, "GET", baseUrl + ENDPOINTS[e]);
+                    long latency = System.nanoTime() - sent;
+                    if (status != 200) {
+                        errors[e]++;
+                    }
+                    if (counts[e] == latencies[e].length) {
+                        latencies[e] = Arrays.copyOf(latencies[e], counts[e] * 2);
+                    }
+                    latencies[e][counts[e]++] = latency;
+                }
+                long[][] trimmed = new long[ENDPOINTS.length][];
+                for (int e = 0; e < ENDPOINTS.length; e++) {
+                    trimmed[e] = Arrays.copyOf(latencies[e], counts[e] + 1);
+                    trimmed[e][counts[e]] = errors[e];
+                }
+                return trimmed;
+            }, clients));
+        }
+
+        List<long[][]> perClient = new ArrayList<>();
+        for (CompletableFuture<long[][]> future : futures) {
+            perClient.add(future.get());
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        clients.shutdown();
+        if (!record) {
+            return null;
+        }
+
+        Result result = new Result(elapsedSeconds);
+        for (int e = 0; e < ENDPOINTS.length; e++) {
+            int total = 0;
+            long errors = 0;
+            for (long[][] latencies : perClient) {
+                total += latencies[e].length - 1;
+                errors += latencies[e][latencies[e].length - 1];
+            }
+            long[] merged = new long[total];
+            int position = 0;
+            for (long[][] latencies : perClient) {
+                System.arraycopy(latencies[e], 0, merged, position, latencies[e].length - 1);
+                position += latencies[e].length - 1;
+            }
+            Arrays.sort(merged);
+            result.endpoints.put(ENDPOINTS[e], new EndpointStats(merged, errors));
+        }
+        return result;
+    }
+
+    private static int send(HttpClient client, String method, String url) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+            .timeout(Duration.ofMinutes(10))
+            .method(method, HttpRequest.BodyPublishers.noBody())
+            .build();
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            return -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+
+    private static long timed(Runnable action) {
+        long start = System.nanoTime();
+        action.run();
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    private static long[] gcTotals() {
+        long count = 0;
+        long millis = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+            millis += Math.max(0, gc.getCollectionTime());
+        }
+        return new long[]{count, millis};
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)] / 1e6;
+    }
+
+    private record EndpointStats(long[] sortedNanos, long errors) {
+    }
+
+    private static final class Result {
+        private final double elapsedSeconds;
+        private final Map<String, EndpointStats> endpoints = new LinkedHashMap<>();
+        private List<Long> refreshMillis = List.of();
+        private long gcCount;
+        private long gcMillis;
+        private long peakHeapBytes;
+        private long liveHeapBytes;
+        private long upstreamRequests;
+        private long upstreamThrottled;
+
+        private Result(double elapsedSeconds) {
+            this.elapsedSeconds = elapsedSeconds;
+        }
+
+        private long[] allLatencies() {
+            return endpoints.values().stream()
+                .flatMapToLong(stats -> Arrays.stream(stats.sortedNanos()))
+                .sorted()
+                .toArray();
+        }
+
+        private long totalErrors() {
+            return endpoints.values().stream().mapToLong(EndpointStats::errors).sum();
+        }
+
+        private double meanRefreshMillis() {
+            return refreshMillis.stream().mapToLong(Long::longValue).average().orElse(0);
+        }
+
+        private void print(PrintStream out) {
+            out.printf("%n== %d clients for %.1f s, refreshes running throughout ==%n", CLIENTS, elapsedSeconds);
+            out.printf("%-44s %9s %9s %9s %9s %7s%n", "endpoint", "requests", "req/s", "p50 ms", "p99 ms", "errors");
+            for (Map.Entry<String, EndpointStats> entry : endpoints.entrySet()) {
+                printRow(out, entry.getKey(), entry.getValue().sortedNanos(), entry.getValue().errors());
+            }
+            printRow(out, "all", allLatencies(), totalErrors());
+
+            out.printf("%nRefreshes: %d, mean %,.0f ms, upstream requests %,d (%,d throttled)%n",
+                refreshMillis.size(), meanRefreshMillis(), upstreamRequests, upstreamThrottled);
+            out.printf("GC: %,d collections, %,d ms; heap peak %,d MB, live after run %,d MB%n",
+                gcCount, gcMillis, peakHeapBytes >> 20, liveHeapBytes >> 20);
+        }
+
+        private void printRow(PrintStream out, String label, long[] sortedNanos, long errors) {
+            out.printf("%-44s %,9d %,9.0f %9.1f %9.1f %,7d%n", label, sortedNanos.length,
+                sortedNanos.length / elapsedSeconds, percentile(sortedNanos, 0.50), percentile(sortedNanos, 0.99),
+                errors);
+        }
+
+        private void append(Path file, long coldRefreshMillis) throws IOException {
+            long[] all = allLatencies();
+            StringBuilder csv = new StringBuilder();
+            if (!Files.exists(file)) {
+                csv.append("timestamp,symbols,clients,seconds,cold_refresh_ms,refreshes,mean_refresh_ms,")
+                    .append("requests,req_per_s,p50_ms,p99_ms,errors,gc_count,gc_ms,peak_heap_mb,live_heap_mb\n");
+            }
+            csv.append(String.format(Locale.ROOT, "%s,%d,%d,%.1f,%d,%d,%.0f,%d,%.0f,%.2f,%.2f,%d,%d,%d,%d,%d%n",
+                Instant.now(), SYMBOLS, CLIENTS, elapsedSeconds, coldRefreshMillis, refreshMillis.size(),
+                meanRefreshMillis(), all.length, all.length / elapsedSeconds, percentile(all, 0.50),
+                percentile(all, 0.99), totalErrors(), gcCount, gcMillis, peakHeapBytes >> 20, liveHeapBytes >> 20));
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Files.writeString(file, csv, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.StockGrowth.StockGrowth.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for the market data provider, serving the two endpoints StockService calls:
+ * <ul>
+ *   <li>{@code /stock-screener}: a universe of {@code universeSize} US symbols (LT0 ... LTn)</li>
+ *   <li>{@code /historical-price-full/{symbol}?from=&to=}: one weekday bar per day in the range, newest first,
+ *       from a random walk seeded by the symbol, so every run sees the same prices</li>
+ * </ul>
+ * Each response is delayed by {@code latencyMillis} plus up to {@code jitterMillis}. With a positive
+ * {@code maxRequestsPerSecond}, requests beyond that rate within the current second get a 429, like the
+ * real provider's throttling. Requests with a different API key get a 401.
+ */
+public class StubMarketDataServer implements AutoCloseable {
+
+    private final int universeSize;
+    private final int latencyMillis;
+    private final int jitterMillis;
+    private final int maxRequestsPerSecond;
+    private final String apiKey;
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong throttled = new AtomicLong();
+    private final AtomicLong currentSecond = new AtomicLong();
+    private final AtomicInteger requestsThisSecond = new AtomicInteger();
+
+    public StubMarketDataServer(int universeSize, int latencyMillis, int jitterMillis, int maxRequestsPerSecond,
+                                String apiKey) throws IOException {
+        this.universeSize = universeSize;
+        this.latencyMillis = latencyMillis;
+        this.jitterMillis = jitterMillis;
+        this.maxRequestsPerSecond = maxRequestsPerSecond;
+        this.apiKey = apiKey;
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        this.server.createContext("/stock-screener", exchange -> handle(exchange, this::screener));
+        this.server.createContext("/historical-price-full/", exchange -> handle(exchange, this::history));
+        this.server.setExecutor(executor);
+        this.server.start();
+    }
+
+    public String getBaseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    public long getRequests() {
+        return requests.get();
+    }
+
+    public long getThrottled() {
+        return throttled.get();
+    }
+
+    private void handle(HttpExchange exchange, ResponseBody body) throws IOException {
+        try (exchange) {
+            requests.incrementAndGet();
+            Map<String, String> query = parseQuery(exchange.getRequestURI());
+            if (!apiKey.equals(query.get("apikey"))) {
+                send(exchange, 401, "{\"Error Message\":\"Invalid API KEY.\"}");
+                return;
+            }
+            if (isThrottled()) {
+                throttled.incrementAndGet();
+                send(exchange, 429, "{\"Error Message\":\"Limit Reach.\"}");
+                return;
+            }
+            sleep(latencyMillis + (jitterMillis > 0 ? ThreadLocalRandom.current().nextInt(jitterMillis + 1) : 0));
+            String rendered;
+            try {
+                rendered = body.render(exchange.getRequestURI(), query);
+            } catch (RuntimeException e) {
+                // Still inside try-with-resources: the exchange is closed only after the error is sent
+                send(exchange, 400, "{\"Error Message\":\"" + e.getMessage() + "\"}");
+                return;
+            }
+            send(exchange, 200, rendered);
+        }
+    }
+
+    private boolean isThrottled() {
+        if (maxRequestsPerSecond <= 0) {
+            return false;
+        }
+        long second = System.nanoTime() / 1_000_000_000L;
+        long previous = currentSecond.get();
+        if (second != previous && currentSecond.compareAndSet(previous, second)) {
+            requestsThisSecond.set(0);
+        }
+        return requestsThisSecond.incrementAndGet() > maxRequestsPerSecond;
+    }
+
+    private String screener(URI uri, Map<String, String> query) {
+        StringBuilder json = new StringBuilder(universeSize * 300).append('[');
+        for (int i = 0; i < universeSize; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            SplittableRandom random = new SplittableRandom(i);
+            json.append("{\"symbol\":\"LT").append(i).append('"')
+                .append(",\"companyName\":\"Load Test ").append(i).append(" Inc.\"")
+                .append(",\"marketCap\":").append(5_000_000 + random.nextInt(95_000_000))
+                .append(",\"sector\":\"Sector ").append(i % 11).append('"')
+                .append(",\"industry\":\"Industry ").append(i % 37).append('"')
+                .append(",\"beta\":").append(Math.round(random.nextDouble(0.2, 2.5) * 100) / 100.0)
+                .append(",\"price\":").append(Math.round(random.nextDouble(1, 50) * 100) / 100.0)
+                .append(",\"lastAnnualDividend\":0")
+                .append(",\"volume\":").append(10_000 + random.nextInt(1_000_000))
+                .append(",\"exchange\":\"NASDAQ\",\"country\":\"US\"")
+                .append(",\"isEtf\":false,\"isFund\":false,\"isActivelyTrading\":true}");
+        }
+        return json.append(']').toString();
+    }
+
+    private String history(URI uri, Map<String, String> query) {
+        String symbol = uri.getPath().substring("/historical-price-full/".length());
+        LocalDate from = LocalDate.parse(query.get("from"));
+        LocalDate to = LocalDate.parse(query.get("to"));
+
+        // Walk forward from a fixed epoch so a symbol's price on a given day never depends on the requested range
+        LocalDate day = LocalDate.of(2020, 1, 1);
+        SplittableRandom random = new SplittableRandom(symbol.hashCode());
+        double price = random.nextDouble(1, 50);
+        List<String> bars = new ArrayList<>();
+        while (!day.isAfter(to)) {
+            if (day.getDayOfWeek() != DayOfWeek.SATURDAY && day.getDayOfWeek() != DayOfWeek.SUNDAY) {
+                price = Math.max(0.01, price * (1 + random.nextDouble(-0.03, 0.031)));
+                long volume = 10_000 + random.nextInt(500_000) * (random.nextInt(20) == 0 ? 4L : 1L);
+                if (!day.isBefore(from)) {
+                    double close = Math.round(price * 100) / 100.0;
+                    bars.add("{\"date\":\"" + day + "\",\"open\":" + close + ",\"high\":" + close
+                        + ",\"low\":" + close + ",\"close\":" + close + ",\"adjClose\":" + close
+                        + ",\"volume\":" + volume + "}");
+                }
+            }
+            day = day.plusDays(1);
+        }
+        Collections.reverse(bars);
+        return "{\"symbol\":\"" + symbol + "\",\"historical\":[" + String.join(",", bars) + "]}";
+    }
+
+    private static Map<String, String> parseQuery(URI uri) {
+        Map<String, String> query = new HashMap<>();
+        if (uri.getRawQuery() != null) {
+            for (String pair : uri.getRawQuery().split("&")) {
+                int eq = pair.indexOf('=');
+                if (eq > 0) {
+                    query.put(pair.substring(0, eq), pair.substring(eq + 1));
+                }
+            }
+        }
+        return query;
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        server.stop(0);
+        executor.shutdownNow();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @FunctionalInterface
+    private interface ResponseBody {
+        String render(URI uri, Map<String, String> query);
+    }
+}
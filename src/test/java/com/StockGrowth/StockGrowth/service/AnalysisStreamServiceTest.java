@@ -0,0 +1,177 @@
+package com.StockGrowth.StockGrowth.service;
+
+import com.StockGrowth.StockGrowth.controller.StockController;
+import com.StockGrowth.StockGrowth.dto.AnalysisDelta;
+import com.StockGrowth.StockGrowth.dto.StockAnalysis;
+import com.StockGrowth.StockGrowth.event.StockDataChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+class AnalysisStreamServiceTest {
+
+    private final StockService stockService = mock(StockService.class);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private AnalysisStreamService service;
+    private Thread holder;
+    private CountDownLatch release;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (release != null) {
+            release.countDown();
+            holder.join();
+        }
+        service.cleanup();
+    }
+
+    @Test
+    void deltaCarriesOnlyChangedAndRemovedTickers() throws Exception {
+        when(stockService.analyzeStocks()).thenReturn(
+            List.of(analysis("AAA", 1.0), analysis("BBB", 2.0), analysis("CCC", 3.0)),
+            List.of(analysis("AAA", 1.0), analysis("BBB", 2.5), analysis("DDD", 4.0)));
+        service = new AnalysisStreamService(stockService, 32, 60_000, 2, 10_000);
+        MockHttpServletResponse response = connect();
+
+        service.onStockDataChanged(new StockDataChangedEvent(this, StockDataChangedEvent.Reason.HISTORICAL_DATA_REFRESHED));
+        await(() -> content(response).contains("event:delta"));
+
+        AnalysisDelta snapshot = event(response, "snapshot");
+        assertTrue(snapshot.isSnapshot());
+        assertEquals(List.of("AAA", "BBB", "CCC"), snapshot.getChanged().stream().map(StockAnalysis::getTicker).toList());
+
+        AnalysisDelta delta = event(response, "delta");
+        assertFalse(delta.isSnapshot());
+        assertEquals(snapshot.getVersion() + 1, delta.getVersion());
+        assertEquals(List.of("BBB", "DDD"), delta.getChanged().stream().map(StockAnalysis::getTicker).toList());
+        assertEquals(2.5, delta.getChanged().get(0).getPriceChange1d());
+        assertEquals(List.of("CCC"), delta.getRemoved());
+    }
+
+    @Test
+    void clientIsDroppedWhenItsBufferIsFullWithoutBlockingTheProducer() throws Exception {
+        when(stockService.analyzeStocks()).thenReturn(List.of(analysis("AAA", 1.0)));
+        service = new AnalysisStreamService(stockService, 2, 60_000, 1, 10_000);
+        SseEmitter slow = service.subscribe();
+        holdSends(slow);
+
+        // One heartbeat blocked in flight, two buffered, the next one does not fit
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            for (int i = 0; i < 4; i++) {
+                service.heartbeat();
+            }
+        });
+        assertEquals(0, service.getClientCount());
+    }
+
+    @Test
+    void stalledSendDoesNotHoldUpOtherClients() throws Exception {
+        when(stockService.analyzeStocks()).thenReturn(List.of(analysis("AAA", 1.0)));
+        service = new AnalysisStreamService(stockService, 32, 60_000, 1, 50);
+        MockHttpServletResponse fast = connect();
+        SseEmitter slow = service.subscribe();
+        holdSends(slow);
+
+        service.heartbeat(); // reaches the fast client, then the slow one takes the only send thread
+        await(() -> heartbeats(fast) == 1);
+        service.heartbeat();
+        Thread.sleep(200);
+        assertEquals(1, heartbeats(fast)); // queued behind the stalled send
+
+        service.dropStalledClients();
+        await(() -> heartbeats(fast) == 2);
+        assertEquals(1, service.getClientCount());
+    }
+
+    private MockHttpServletResponse connect() throws Exception {
+        StockController controller = new StockController(stockService, service, mock(PriceExportService.class),
+            mock(CorrelationService.class));
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+        MockHttpServletResponse response = mockMvc.perform(get("/api/stocks/analyze/stream"))
+            .andExpect(request().asyncStarted())
+            .andReturn()
+            .getResponse();
+        await(() -> content(response).contains("event:snapshot"));
+        return response;
+    }
+
+    /**
+     * Simulates a client that stopped reading: SseEmitter.send is synchronized on the emitter, so holding its
+     * monitor blocks a send the way a full socket buffer does.
+     */
+    private void holdSends(SseEmitter emitter) throws InterruptedException {
+        CountDownLatch held = new CountDownLatch(1);
+        release = new CountDownLatch(1);
+        holder = new Thread(() -> {
+            synchronized (emitter) {
+                held.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        holder.start();
+        held.await();
+    }
+
+    private AnalysisDelta event(MockHttpServletResponse response, String name) throws Exception {
+        String[] lines = content(response).split("\n");
+        for (int i = 0; i < lines.length - 1; i++) {
+            if (lines[i].equals("event:" + name)) {
+                for (int j = i + 1; j < lines.length; j++) {
+                    if (lines[j].startsWith("data:")) {
+                        return objectMapper.readValue(lines[j].substring("data:".length()), AnalysisDelta.class);
+                    }
+                }
+            }
+        }
+        throw new AssertionError("No " + name + " event in " + content(response));
+    }
+
+    private static int heartbeats(MockHttpServletResponse response) {
+        return content(response).split(":heartbeat", -1).length - 1;
+    }
+
+    private static String content(MockHttpServletResponse response) {
+        try {
+            return response.getContentAsString();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Condition not met within 5 s");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private static StockAnalysis analysis(String ticker, double priceChange1d) {
+        return new StockAnalysis(ticker, ticker + " Inc.", 50_000_000.0, 1_000L, priceChange1d, 0.0, 0.0,
+            false, false, 1_000.0);
+    }
+}
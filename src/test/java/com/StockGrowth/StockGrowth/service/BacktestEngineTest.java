@@ -0,0 +1,65 @@
+package com.StockGrowth.StockGrowth.service;
+
+import com.StockGrowth.StockGrowth.dto.BacktestRequest;
+import com.StockGrowth.StockGrowth.dto.BacktestResult;
+import com.StockGrowth.StockGrowth.dto.PriceSeries;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BacktestEngineTest {
+
+    // Five consecutive days; only day 2 has a volume spike (700 > 2 x 300, the average of days 0-2)
+    private static final PriceSeries SERIES = new PriceSeries("TEST",
+        new int[]{19000, 19001, 19002, 19003, 19004},
+        new double[]{10.0, 11.0, 12.1, 11.0, 13.2},
+        new long[]{100, 100, 700, 100, 100});
+
+    @Test
+    void replayAccumulatesForwardReturnsPerSignalAndHorizon() {
+        BacktestEngine.Accumulator acc = new BacktestEngine.Accumulator(2);
+        BacktestEngine.replay(SERIES, 30, new int[]{1, 2}, Integer.MIN_VALUE, Integer.MAX_VALUE, acc);
+        BacktestResult result = acc.toResult(new int[]{1, 2});
+
+        assertEquals(5, result.getSignalDays());
+        // 1-day returns: +10%, +10%, -9.09%, +20%
+        assertStats(result, "ALL_DAYS", 1, 4, 0.75, (0.1 + 0.1 + (11.0 / 12.1 - 1) + 0.2) / 4);
+        // 2-day returns: +21%, 0%, +9.09% (a flat return is not a hit)
+        assertStats(result, "ALL_DAYS", 2, 3, 2.0 / 3, (0.21 + 0.0 + (13.2 / 12.1 - 1)) / 3);
+        assertStats(result, "VOLUME_SPIKE", 1, 1, 0.0, 11.0 / 12.1 - 1);
+        assertStats(result, "VOLUME_SPIKE", 2, 1, 1.0, 13.2 / 12.1 - 1);
+        // Fewer than ten prices in every window, so the uptrend rule never fires
+        assertStats(result, "UPTREND", 1, 0, 0.0, 0.0);
+        assertStats(result, "UPTREND_AND_VOLUME_SPIKE", 2, 0, 0.0, 0.0);
+    }
+
+    @Test
+    void runRestrictsSignalDaysToTheRequestedRange() {
+        BacktestRequest request = new BacktestRequest();
+        request.setHorizons(List.of(1));
+        request.setFrom(LocalDate.ofEpochDay(19001));
+        request.setTo(LocalDate.ofEpochDay(19002));
+
+        BacktestResult result = new BacktestEngine(new ForkJoinPool(1)).run(new PriceSeries[]{SERIES}, request);
+
+        assertEquals(1, result.getSymbols());
+        assertEquals(2, result.getSignalDays());
+        assertStats(result, "ALL_DAYS", 1, 2, 0.5, (0.1 + (11.0 / 12.1 - 1)) / 2);
+        assertStats(result, "VOLUME_SPIKE", 1, 1, 0.0, 11.0 / 12.1 - 1);
+    }
+
+    private static void assertStats(BacktestResult result, String signal, int horizon, long count, double hitRate,
+                                    double meanReturn) {
+        BacktestResult.SignalStats stats = result.getStats().stream()
+            .filter(s -> s.getSignal().equals(signal) && s.getHorizon() == horizon)
+            .findFirst()
+            .orElseThrow();
+        assertEquals(count, stats.getCount(), signal + " count");
+        assertEquals(hitRate, stats.getHitRate(), 1e-9, signal + " hit rate");
+        assertEquals(meanReturn * 100, stats.getMeanReturn(), 1e-9, signal + " mean return");
+    }
+}
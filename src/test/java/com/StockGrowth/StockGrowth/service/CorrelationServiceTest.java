@@ -0,0 +1,163 @@
+package com.StockGrowth.StockGrowth.service;
+
+import com.StockGrowth.StockGrowth.dto.CorrelatedStock;
+import com.StockGrowth.StockGrowth.dto.PriceSeries;
+import com.StockGrowth.StockGrowth.event.PriceSeriesUpdatedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntToDoubleFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CorrelationServiceTest {
+
+    private static final int DAYS = 21;
+
+    private static final IntToDoubleFunction BASE = k -> 0.01 * ((k * 7) % 5 - 2);
+    private static final IntToDoubleFunction OTHER = k -> 0.01 * ((k * 3) % 4 - 1.5);
+
+    private final PriceSeriesCache cache = mock(PriceSeriesCache.class);
+    private final CorrelationService service = new CorrelationService(cache, 60, 0.8, 2, 2);
+
+    @AfterEach
+    void tearDown() {
+        service.cleanup();
+    }
+
+    @Test
+    void topCorrelatedAreOrderedByDescendingCorrelation() {
+        Map<String, PriceSeries> universe = universe(OTHER);
+        when(cache.getAll()).thenReturn(universe);
+
+        List<CorrelatedStock> top = service.getTopCorrelated("AAA", 3);
+
+        assertEquals(List.of("DOUBLE", "MIXED", "OTHER"), top.stream().map(CorrelatedStock::getTicker).toList());
+        for (CorrelatedStock stock : top) {
+            assertEquals(pearson(universe.get("AAA"), universe.get(stock.getTicker())), stock.getCorrelation(), 1e-5,
+                stock.getTicker());
+        }
+        assertEquals(1.0, top.get(0).getCorrelation(), 1e-5);
+
+        List<CorrelatedStock> all = service.getTopCorrelated("AAA", 10);
+        assertEquals(4, all.size()); // every other symbol, never AAA itself
+        assertEquals("INVERSE", all.get(3).getTicker());
+        assertEquals(-1.0, all.get(3).getCorrelation(), 1e-5);
+    }
+
+    @Test
+    void unknownSymbolHasNoCorrelations() {
+        when(cache.getAll()).thenReturn(universe(OTHER));
+
+        assertNull(service.getTopCorrelated("NOPE", 3));
+    }
+
+    @Test
+    void changedSymbolsAreRecomputedAfterAReload() {
+        when(cache.getAll()).thenReturn(universe(OTHER));
+        assertEquals("DOUBLE", service.getTopCorrelated("AAA", 1).get(0).getTicker());
+
+        // OTHER now moves exactly with AAA
+        when(cache.getAll()).thenReturn(universe(k -> 3 * BASE.applyAsDouble(k)));
+        service.onPriceSeriesUpdated(new PriceSeriesUpdatedEvent(this, Set.of("OTHER"), Set.of()));
+        service.cleanup(); // waits for the update
+
+        List<CorrelatedStock> top = service.getTopCorrelated("OTHER", 4);
+        assertEquals(1.0, top.get(0).getCorrelation(), 1e-5);
+        assertEquals(1.0, top.get(1).getCorrelation(), 1e-5);
+        assertEquals("INVERSE", top.get(3).getTicker());
+    }
+
+    @Test
+    void reloadDuringTheFirstComputationIsNotLost() throws Exception {
+        Map<String, PriceSeries> before = universe(OTHER);
+        Map<String, PriceSeries> after = universe(k -> 3 * BASE.applyAsDouble(k));
+        CountDownLatch readingSeries = new CountDownLatch(1);
+        CountDownLatch reloaded = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        when(cache.getAll()).thenAnswer(invocation -> {
+            if (calls.getAndIncrement() > 0) {
+                return after;
+            }
+            // The first computation reads the series, then the reload happens before it finishes
+            readingSeries.countDown();
+            reloaded.await();
+            return before;
+        });
+
+        ExecutorService requester = Executors.newSingleThreadExecutor();
+        try {
+            Future<List<CorrelatedStock>> first = requester.submit(() -> service.getTopCorrelated("AAA", 1));
+            readingSeries.await();
+            service.onPriceSeriesUpdated(new PriceSeriesUpdatedEvent(this, Set.of("OTHER"), Set.of()));
+            reloaded.countDown();
+            first.get(10, TimeUnit.SECONDS);
+        } finally {
+            requester.shutdown();
+        }
+        service.cleanup(); // waits for the update
+
+        assertEquals(1.0, service.getTopCorrelated("OTHER", 1).get(0).getCorrelation(), 1e-5);
+    }
+
+    private static Map<String, PriceSeries> universe(IntToDoubleFunction other) {
+        Map<String, PriceSeries> universe = new HashMap<>();
+        universe.put("AAA", series("AAA", BASE));
+        universe.put("DOUBLE", series("DOUBLE", k -> 2 * BASE.applyAsDouble(k)));
+        universe.put("INVERSE", series("INVERSE", k -> -BASE.applyAsDouble(k)));
+        universe.put("MIXED", series("MIXED", k -> BASE.applyAsDouble(k) + OTHER.applyAsDouble(k)));
+        universe.put("OTHER", series("OTHER", other));
+        return universe;
+    }
+
+    private static PriceSeries series(String symbol, IntToDoubleFunction returns) {
+        int[] days = new int[DAYS];
+        double[] prices = new double[DAYS];
+        long[] volumes = new long[DAYS];
+        prices[0] = 100;
+        for (int k = 0; k < DAYS; k++) {
+            days[k] = 19_000 + k;
+            volumes[k] = 1_000;
+            if (k > 0) {
+                prices[k] = prices[k - 1] * (1 + returns.applyAsDouble(k - 1));
+            }
+        }
+        return new PriceSeries(symbol, days, prices, volumes);
+    }
+
+    private static double pearson(PriceSeries a, PriceSeries b) {
+        int t = DAYS - 1;
+        double[] x = new double[t];
+        double[] y = new double[t];
+        double meanX = 0;
+        double meanY = 0;
+        for (int k = 0; k < t; k++) {
+            x[k] = a.getPrices()[k + 1] / a.getPrices()[k] - 1;
+            y[k] = b.getPrices()[k + 1] / b.getPrices()[k] - 1;
+            meanX += x[k] / t;
+            meanY += y[k] / t;
+        }
+        double xy = 0;
+        double xx = 0;
+        double yy = 0;
+        for (int k = 0; k < t; k++) {
+            xy += (x[k] - meanX) * (y[k] - meanY);
+            xx += (x[k] - meanX) * (x[k] - meanX);
+            yy += (y[k] - meanY) * (y[k] - meanY);
+        }
+        return xy / Math.sqrt(xx * yy);
+    }
+}
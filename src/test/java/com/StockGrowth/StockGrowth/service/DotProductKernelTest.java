@@ -0,0 +1,45 @@
+package com.StockGrowth.StockGrowth.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class DotProductKernelTest {
+
+    @Test
+    void vectorKernelIsUsedWhenTheModuleIsAdded() {
+        // Surefire runs with --add-modules jdk.incubator.vector, so best() should not fall back to the scalar loop
+        assumeTrue(ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent());
+        assertEquals("vector", DotProductKernel.best().name().replaceAll("\\(.*", ""));
+    }
+
+    @Test
+    void vectorAndScalarKernelsAgree() {
+        DotProductKernel scalar = DotProductKernel.scalar();
+        DotProductKernel best = DotProductKernel.best();
+        SplittableRandom random = new SplittableRandom(42);
+        double[] a = new double[200];
+        double[] b = new double[200];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = random.nextDouble(-1, 1);
+            b[i] = random.nextDouble(-1, 1);
+        }
+
+        // Every length up to a few vector widths, at offsets that are not lane-aligned, so tails are covered
+        for (int length = 0; length <= 67; length++) {
+            for (int aOffset : new int[]{0, 3, 61}) {
+                int bOffset = 130 - aOffset;
+                double expected = 0;
+                for (int i = 0; i < length; i++) {
+                    expected += a[aOffset + i] * b[bOffset + i];
+                }
+                String where = "length " + length + ", offset " + aOffset;
+                assertEquals(expected, scalar.dot(a, aOffset, b, bOffset, length), 1e-12, where);
+                assertEquals(expected, best.dot(a, aOffset, b, bOffset, length), 1e-12, where);
+            }
+        }
+    }
+}
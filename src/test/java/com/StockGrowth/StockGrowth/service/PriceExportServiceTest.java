@@ -0,0 +1,126 @@
+package com.StockGrowth.StockGrowth.service;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowStreamReader;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PriceExportServiceTest {
+
+    private PriceExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE historical_prices (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+            + "symbol VARCHAR(255) NOT NULL, date DATE NOT NULL, price DOUBLE NOT NULL, volume BIGINT NOT NULL, "
+            + "last_updated TIMESTAMP NOT NULL)");
+        insert(jdbcTemplate, "MSFT", "2025-01-02", 420.5, 1_000);
+        insert(jdbcTemplate, "AAPL", "2025-01-03", 243.25, 2_500);
+        insert(jdbcTemplate, "AAPL", "2025-01-02", 241.0, 3_000);
+        insert(jdbcTemplate, "AAPL", "2025-01-06", 245.75, 4_000);
+        insert(jdbcTemplate, "TSLA", "2025-01-03", 410.0, 5_000);
+        // Batches of two rows, so the Arrow export spans several record batches
+        exportService = new PriceExportService(dataSource, 100, 2);
+    }
+
+    @Test
+    void csvHasHeaderAndRowsOrderedBySymbolAndDate() throws IOException {
+        assertEquals(List.of(
+            "symbol,date,price,volume",
+            "AAPL,2025-01-02,241.0,3000",
+            "AAPL,2025-01-03,243.25,2500",
+            "AAPL,2025-01-06,245.75,4000",
+            "MSFT,2025-01-02,420.5,1000",
+            "TSLA,2025-01-03,410.0,5000"), exportCsv(null, null, null));
+    }
+
+    @Test
+    void csvAppliesSymbolAndDateFilters() throws IOException {
+        assertEquals(List.of(
+            "symbol,date,price,volume",
+            "AAPL,2025-01-03,243.25,2500",
+            "TSLA,2025-01-03,410.0,5000"),
+            exportCsv(List.of("AAPL", "TSLA"), LocalDate.parse("2025-01-03"), LocalDate.parse("2025-01-05")));
+    }
+
+    @Test
+    void arrowHasTypedColumns() throws IOException {
+        assertEquals(List.of(
+            "AAPL|2025-01-02|241.0|3000",
+            "AAPL|2025-01-03|243.25|2500",
+            "AAPL|2025-01-06|245.75|4000",
+            "MSFT|2025-01-02|420.5|1000",
+            "TSLA|2025-01-03|410.0|5000"), exportArrow(null, null, null));
+    }
+
+    @Test
+    void arrowAppliesSymbolAndDateFilters() throws IOException {
+        assertEquals(List.of("AAPL|2025-01-02|241.0|3000", "MSFT|2025-01-02|420.5|1000"),
+            exportArrow(List.of("AAPL", "MSFT"), null, LocalDate.parse("2025-01-02")));
+        assertEquals(List.of("AAPL|2025-01-06|245.75|4000"),
+            exportArrow(List.of("AAPL"), LocalDate.parse("2025-01-04"), null));
+        assertEquals(List.of(), exportArrow(List.of("NONE"), null, null));
+    }
+
+    private List<String> exportCsv(List<String> symbols, LocalDate from, LocalDate to) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(PriceExportService.Format.CSV, symbols, from, to, out);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8).lines().toList();
+        }
+    }
+
+    private List<String> exportArrow(List<String> symbols, LocalDate from, LocalDate to) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(PriceExportService.Format.ARROW, symbols, from, to, out);
+
+        List<String> rows = new ArrayList<>();
+        try (BufferAllocator allocator = new RootAllocator();
+             ArrowStreamReader reader = new ArrowStreamReader(new ByteArrayInputStream(out.toByteArray()), allocator)) {
+            VectorSchemaRoot root = reader.getVectorSchemaRoot();
+            assertEquals(List.of("symbol", "date", "price", "volume"),
+                root.getSchema().getFields().stream().map(Field::getName).toList());
+            while (reader.loadNextBatch()) {
+                VarCharVector symbol = (VarCharVector) root.getVector("symbol");
+                DateDayVector date = (DateDayVector) root.getVector("date");
+                Float8Vector price = (Float8Vector) root.getVector("price");
+                BigIntVector volume = (BigIntVector) root.getVector("volume");
+                for (int i = 0; i < root.getRowCount(); i++) {
+                    rows.add(new String(symbol.get(i), StandardCharsets.UTF_8) + "|" + LocalDate.ofEpochDay(date.get(i))
+                        + "|" + price.get(i) + "|" + volume.get(i));
+                }
+            }
+        }
+        return rows;
+    }
+
+    private static void insert(JdbcTemplate jdbcTemplate, String symbol, String date, double price, long volume) {
+        jdbcTemplate.update("INSERT INTO historical_prices (symbol, date, price, volume, last_updated) "
+            + "VALUES (?, ?, ?, ?, CURRENT_TIMESTAMP)", symbol, Date.valueOf(date), price, volume);
+    }
+}
@@ -0,0 +1,98 @@
+package com.StockGrowth.StockGrowth.service;
+
+import com.StockGrowth.StockGrowth.config.RetentionProperties;
+import com.StockGrowth.StockGrowth.config.RetentionProperties.TablePolicy;
+import com.StockGrowth.StockGrowth.dto.RetentionReport;
+import com.StockGrowth.StockGrowth.model.HistoricalPrice;
+import com.StockGrowth.StockGrowth.repository.HistoricalPriceRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The chunked delete path on H2 (no partitioning, so a partitioned policy falls back to it).
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // the service commits each chunk itself
+class RetentionServiceTest {
+
+    private static final int RETENTION_DAYS = 100;
+
+    @Autowired
+    private HistoricalPriceRepository historicalPriceRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private RetentionService retentionService;
+
+    @BeforeEach
+    void setUp() {
+        TablePolicy policy = new TablePolicy();
+        policy.setRetentionDays(RETENTION_DAYS);
+        policy.setChunkSize(7);
+        policy.setThrottleMillis(0);
+        RetentionProperties properties = new RetentionProperties();
+        properties.getTables().put(RetentionService.HISTORICAL_PRICES, policy);
+        retentionService = new RetentionService(properties, historicalPriceRepository, jdbcTemplate,
+            new TransactionTemplate(transactionManager));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        retentionService.cleanup();
+        historicalPriceRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void chunkedDeleteReclaimsExpiredRowsAndKeepsTheRest() {
+        LocalDate cutoff = LocalDate.now().minusDays(RETENTION_DAYS);
+        List<HistoricalPrice> rows = new ArrayList<>();
+        // 30 expired and 20 retained days for AAA (several chunks), 5 expired for BBB, only retained rows for CCC
+        addDays(rows, "AAA", cutoff.minusDays(30), 50);
+        addDays(rows, "BBB", cutoff.minusDays(5), 10);
+        addDays(rows, "CCC", cutoff, 3);
+        historicalPriceRepository.saveAll(rows);
+
+        List<RetentionReport> reports = retentionService.runRetention();
+
+        assertEquals(1, reports.size());
+        RetentionReport report = reports.get(0);
+        assertNull(report.getError());
+        assertEquals("chunked-delete", report.getMode());
+        assertEquals(35, report.getRowsReclaimed());
+        assertTrue(report.getPartitionsDropped().isEmpty());
+
+        List<HistoricalPrice> remaining = historicalPriceRepository.findAll();
+        assertEquals(20 + 5 + 3, remaining.size());
+        assertTrue(remaining.stream().noneMatch(price -> price.getDate().isBefore(cutoff)));
+        assertEquals(20, historicalPriceRepository.findBySymbolOrderByDateDesc("AAA").size());
+        assertEquals(cutoff, historicalPriceRepository.findBySymbolOrderByDateDesc("CCC").get(2).getDate());
+        assertEquals(reports, retentionService.getLastReports());
+    }
+
+    private static void addDays(List<HistoricalPrice> rows, String symbol, LocalDate first, int days) {
+        for (int i = 0; i < days; i++) {
+            rows.add(new HistoricalPrice(null, symbol, first.plusDays(i), 10.0 + i, 1_000L, LocalDateTime.now()));
+        }
+    }
+}
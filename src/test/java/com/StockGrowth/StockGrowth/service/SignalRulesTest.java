@@ -0,0 +1,78 @@
+package com.StockGrowth.StockGrowth.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pins the signal rules to the results of the list-based implementation they replaced in StockService
+ * (moving averages over List&lt;Double&gt;, slope over the last five averages); the expected values below
+ * were produced by that code.
+ */
+class SignalRulesTest {
+
+    private static final double[][] PRICES = {
+        {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12},
+        {12, 11, 10, 9, 8, 7, 6, 5, 4, 3, 2, 1},
+        {1, 2, 3, 4, 5, 6, 7, 8, 9},
+        {5, 5, 5, 5, 5, 5, 5, 5, 5, 5},
+        {10, 9, 8, 7, 6, 5, 6, 7, 8, 9, 10, 11},
+        {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 5},
+        {10, 12, 10, 12, 10, 12, 10, 12, 10, 12, 10, 12, 10, 12},
+        {20, 19, 18, 17, 16, 15, 14, 13, 12, 11, 12, 13, 14},
+        {10, 10.5, 11, 11.5, 12, 12.5, 13, 13.5, 14, 14.5, 14.4, 14.3, 14.2, 14.1, 14.0},
+        {10, 10, 10, 10, 10, 10, 10, 10, 10, 11},
+        {30.9, 31.2, 31.7, 32.0, 32.4, 31.9, 31.1, 31.5, 30.8, 31.2, 30.9, 30.3, 30.6, 30.4, 29.9, 30.1, 30.2,
+            29.8, 29.5, 30.0},
+        {10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 18, 17, 16, 15.5, 15},
+        {30.0, 29.8, 30.2, 30.1, 29.9, 30.4, 30.6, 30.3, 30.9, 31.2, 30.8, 31.5, 31.1, 31.9, 32.4, 32.0, 31.7,
+            31.2, 30.9},
+    };
+
+    private static final boolean[] UPTRENDING = {
+        true, false, false, false, true, true, true, false, true, true, false, false, true,
+    };
+
+    @Test
+    void uptrendMatchesPreviousImplementation() {
+        for (int i = 0; i < PRICES.length; i++) {
+            double[] prices = PRICES[i];
+            assertEquals(UPTRENDING[i], SignalRules.isUptrending(prices, 0, prices.length),
+                "prices " + Arrays.toString(prices));
+        }
+    }
+
+    @Test
+    void uptrendOnlyLooksAtTheGivenWindow() {
+        for (int i = 0; i < PRICES.length; i++) {
+            double[] prices = PRICES[i];
+            // Surround the window with values that would change the outcome if they were read
+            double[] padded = new double[prices.length + 20];
+            Arrays.fill(padded, 1_000);
+            System.arraycopy(prices, 0, padded, 10, prices.length);
+            assertEquals(UPTRENDING[i], SignalRules.isUptrending(padded, 10, 10 + prices.length),
+                "prices " + Arrays.toString(prices));
+        }
+    }
+
+    @Test
+    void uptrendNeedsTenPrices() {
+        double[] rising = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10};
+        assertTrue(SignalRules.isUptrending(rising, 0, 10));
+        assertFalse(SignalRules.isUptrending(rising, 1, 10));
+    }
+
+    @Test
+    void unusualVolumeIsMoreThanTwiceTheAverage() {
+        assertTrue(SignalRules.isUnusualVolume(201, 100.0));
+        assertTrue(SignalRules.isUnusualVolume(1_000_000, 12_345.6));
+        assertFalse(SignalRules.isUnusualVolume(200, 100.0));
+        assertFalse(SignalRules.isUnusualVolume(150, 100.0));
+        assertFalse(SignalRules.isUnusualVolume(1_000, 0.0));
+        assertFalse(SignalRules.isUnusualVolume(1_000, -5.0));
+    }
+}
@@ -0,0 +1,150 @@
+package com.StockGrowth.StockGrowth.service;
+
+import com.StockGrowth.StockGrowth.dto.PriceSeries;
+import com.StockGrowth.StockGrowth.dto.StockAnalysis;
+import com.StockGrowth.StockGrowth.event.StockDataChangedEvent;
+import com.StockGrowth.StockGrowth.repository.HistoricalPriceRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SnapshotServiceTest {
+
+    private static final LocalDateTime LAST_UPDATED = LocalDateTime.of(2025, 3, 14, 18, 30, 5);
+    private static final List<StockAnalysis> ANALYSES = List.of(
+        new StockAnalysis("AAA", "AAA Inc.", 50_000_000.0, 12_000L, 1.5, -2.0, 8.25, true, false, 10_000.0),
+        new StockAnalysis("BBB", null, null, null, null, null, null, null, null, null));
+
+    @TempDir
+    Path dir;
+
+    private final StockService stockService = mock(StockService.class);
+    private final HistoricalPriceRepository repository = mock(HistoricalPriceRepository.class);
+    private final ApplicationEventPublisher publisher = mock(ApplicationEventPublisher.class);
+    private final List<AnalysisStreamService> streams = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        streams.forEach(AnalysisStreamService::cleanup);
+    }
+
+    @Test
+    void writtenSnapshotRestoresAnalysesAndSeries() {
+        when(repository.count()).thenReturn(3L);
+        when(repository.findLatestUpdate()).thenReturn(LAST_UPDATED);
+        when(stockService.analyzeStocks()).thenReturn(ANALYSES);
+        AnalysisStreamService stream = stream();
+        stream.getCurrentAnalyses();
+        PriceSeriesCache cache = cache();
+        cache.restore(Map.of("AAA", new PriceSeries("AAA", new int[]{19000, 19001, 19004},
+            new double[]{10.0, 10.5, 9.75}, new long[]{100, 2_000, 30_000})));
+        SnapshotService writer = snapshot(stream, cache);
+        writer.onApplicationReady();
+        writer.write();
+
+        AnalysisStreamService restoredStream = stream();
+        PriceSeriesCache restoredCache = cache();
+        SnapshotService reader = snapshot(restoredStream, restoredCache);
+        reader.restore();
+
+        assertTrue(reader.isRestored());
+        assertEquals(ANALYSES, restoredStream.peekCurrentAnalyses());
+        assertEquals(stream.getVersion(), restoredStream.getVersion());
+        PriceSeries series = restoredCache.peek().get("AAA");
+        assertArrayEquals(new int[]{19000, 19001, 19004}, series.getEpochDays());
+        assertArrayEquals(new double[]{10.0, 10.5, 9.75}, series.getPrices());
+        assertArrayEquals(new long[]{100, 2_000, 30_000}, series.getVolumes());
+
+        // Same database state: nothing to recompute
+        reader.onApplicationReady();
+        verify(publisher, never()).publishEvent(any());
+
+        // Refreshed elsewhere (same row count, new timestamps): recompute
+        when(repository.findLatestUpdate()).thenReturn(LAST_UPDATED.plusDays(1));
+        SnapshotService outdated = snapshot(stream(), cache());
+        outdated.restore();
+        outdated.onApplicationReady();
+        verify(publisher).publishEvent(any(StockDataChangedEvent.class));
+    }
+
+    @Test
+    void nothingIsWrittenWhileTheAnalysisIsBeingRebuilt() throws Exception {
+        when(repository.count()).thenReturn(3L);
+        when(repository.findLatestUpdate()).thenReturn(LAST_UPDATED);
+        CountDownLatch recomputing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(stockService.analyzeStocks()).thenReturn(ANALYSES).thenAnswer(invocation -> {
+            recomputing.countDown();
+            release.await();
+            return ANALYSES;
+        });
+        AnalysisStreamService stream = stream();
+        stream.getCurrentAnalyses();
+        SnapshotService snapshot = snapshot(stream, cache());
+        snapshot.onApplicationReady();
+
+        // The data changes; the marker moves on at once, the analysis only once recomputed
+        when(repository.findLatestUpdate()).thenReturn(LAST_UPDATED.plusHours(1));
+        StockDataChangedEvent event = new StockDataChangedEvent(this, StockDataChangedEvent.Reason.HISTORICAL_DATA_REFRESHED);
+        snapshot.onStockDataChanged(event);
+        stream.onStockDataChanged(event);
+        recomputing.await();
+        try {
+            snapshot.write();
+            assertFalse(Files.exists(dir.resolve("snapshot.bin.gz")));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void neverLoadedSeriesAreNotRestoredAsEmpty() {
+        when(repository.count()).thenReturn(0L);
+        when(stockService.analyzeStocks()).thenReturn(ANALYSES);
+        AnalysisStreamService stream = stream();
+        stream.getCurrentAnalyses();
+        SnapshotService writer = snapshot(stream, cache());
+        writer.onApplicationReady();
+        writer.write();
+
+        PriceSeriesCache restoredCache = cache();
+        snapshot(stream(), restoredCache).restore();
+        assertNull(restoredCache.peek());
+    }
+
+    private AnalysisStreamService stream() {
+        AnalysisStreamService stream = new AnalysisStreamService(stockService, 32, 60_000, 1, 10_000);
+        streams.add(stream);
+        return stream;
+    }
+
+    private static PriceSeriesCache cache() {
+        return new PriceSeriesCache(null, event -> { });
+    }
+
+    private SnapshotService snapshot(AnalysisStreamService stream, PriceSeriesCache cache) {
+        return new SnapshotService(stream, cache, repository, publisher, true,
+            dir.resolve("snapshot.bin.gz").toString(), Duration.ofHours(1));
+    }
+}
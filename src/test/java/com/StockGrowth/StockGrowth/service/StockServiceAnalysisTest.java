@@ -0,0 +1,97 @@
+package com.StockGrowth.StockGrowth.service;
+
+import com.StockGrowth.StockGrowth.dto.StockAnalysis;
+import com.StockGrowth.StockGrowth.model.HistoricalPrice;
+import com.StockGrowth.StockGrowth.model.Stock;
+import com.StockGrowth.StockGrowth.repository.HistoricalPriceRepository;
+import com.StockGrowth.StockGrowth.repository.StockRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.Mockito.mock;
+
+/**
+ * analyzeStocks on H2 with a long history: only the latest 30-day window is loaded and analyzed.
+ */
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // the analysis reads from the database, not this session
+class StockServiceAnalysisTest {
+
+    private static final LocalDate LATEST = LocalDate.of(2025, 6, 30);
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private HistoricalPriceRepository historicalPriceRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void tearDown() {
+        historicalPriceRepository.deleteAllInBatch();
+        stockRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void analysisLoadsOnlyTheLatestWindow() {
+        stockRepository.save(stock("AAA"));
+        stockRepository.save(stock("NOHISTORY"));
+        // Two years of daily bars; price and volume grow by one per day
+        List<HistoricalPrice> history = new ArrayList<>();
+        for (int day = 0; day < 730; day++) {
+            LocalDate date = LATEST.minusDays(729 - day);
+            history.add(new HistoricalPrice(null, "AAA", date, 100.0 + day, 1_000L + day, LocalDateTime.now()));
+        }
+        historicalPriceRepository.saveAll(history);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<StockAnalysis> analyses = stockService().analyzeStocks();
+
+        assertEquals(1, analyses.size());
+        StockAnalysis analysis = analyses.get(0);
+        assertEquals("AAA", analysis.getTicker());
+        assertEquals(1_729L, analysis.getVolume());
+        // The window holds the last 31 days (latest - 30 through latest): volumes 1,699 ... 1,729
+        assertEquals(1_714.0, analysis.getAverageVolume(), 1e-9);
+        assertEquals((829.0 - 799.0) / 799.0 * 100, analysis.getPriceChange30d(), 1e-9);
+        assertEquals((829.0 - 825.0) / 825.0 * 100, analysis.getPriceChange5d(), 1e-9);
+        assertFalse(analysis.getHasUnusualVolume());
+        // Nothing outside the window is materialized
+        assertEquals(31, statistics.getEntityLoadCount() - 2); // plus the two stocks
+    }
+
+    private StockService stockService() {
+        return new StockService(mock(RestTemplate.class), stockRepository, historicalPriceRepository, event -> { },
+            mock(ExecutorService.class), 10, 2, 100, 30, "http://localhost", "test");
+    }
+
+    private static Stock stock(String symbol) {
+        Stock stock = new Stock();
+        stock.setSymbol(symbol);
+        stock.setCompanyName(symbol + " Inc.");
+        stock.setMarketCap(50_000_000.0);
+        return stock;
+    }
+}
@@ -0,0 +1,51 @@
+package com.StockGrowth.StockGrowth.service;
+
+import com.StockGrowth.StockGrowth.repository.HistoricalPriceRepository;
+import com.StockGrowth.StockGrowth.repository.StockRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * A blank key only fails provider calls; the service itself still starts.
+ */
+class StockServiceApiKeyTest {
+
+    private final RestTemplate restTemplate = mock(RestTemplate.class);
+    private final StockRepository stockRepository = mock(StockRepository.class);
+    private final HistoricalPriceRepository historicalPriceRepository = mock(HistoricalPriceRepository.class);
+
+    private StockService service(String apiKey) {
+        return new StockService(restTemplate, stockRepository, historicalPriceRepository, event -> { },
+            mock(ExecutorService.class), 10, 2, 100, 30, "http://localhost", apiKey);
+    }
+
+    @Test
+    void blankKeyStillAllowsAnalysis() {
+        when(historicalPriceRepository.findLatestDatePerSymbol()).thenReturn(List.of());
+        when(stockRepository.findAll()).thenReturn(List.of());
+
+        assertEquals(List.of(), service("").analyzeStocks());
+        verifyNoInteractions(restTemplate);
+    }
+
+    @Test
+    void blankKeyFailsTheScreenerFetch() {
+        assertThrows(IllegalStateException.class, () -> service(" ").fetchAndSaveStocksUnder100M());
+        verifyNoInteractions(restTemplate);
+    }
+
+    @Test
+    void blankKeyFailsTheRefreshBeforeDeletingHistory() {
+        assertThrows(IllegalStateException.class, () -> service(null).refreshHistoricalData());
+        verifyNoInteractions(historicalPriceRepository, restTemplate);
+    }
+}